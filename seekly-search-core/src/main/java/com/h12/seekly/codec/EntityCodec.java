@@ -0,0 +1,20 @@
+package com.h12.seekly.codec;
+
+import java.io.IOException;
+
+/**
+ * Serializes searchable entities for storage and decodes them back into their
+ * concrete type when search results are hydrated.
+ */
+public interface EntityCodec<T> {
+
+    /**
+     * Serialize an entity to bytes
+     */
+    byte[] encode(T entity) throws IOException;
+
+    /**
+     * Decode an entity from bytes produced by {@link #encode(Object)}
+     */
+    T decode(byte[] data) throws IOException;
+}
@@ -0,0 +1,125 @@
+package com.h12.seekly.codec;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.h12.seekly.enums.EntityEncoding;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Jackson based entity codec.
+ * The reader and writer are built once per entity type, so decoding does not
+ * look up (de)serializers or go through an intermediate {@code Map}.
+ * The built-in formats map entity fields only, so derived getters such as
+ * {@code getSearchableFields()} are neither stored nor evaluated.
+ */
+public class JacksonEntityCodec<T> implements EntityCodec<T> {
+
+    private final ObjectMapper mapper;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public JacksonEntityCodec(ObjectMapper mapper, Class<T> entityClass) {
+        this.mapper = mapper;
+        this.reader = mapper.readerFor(entityClass)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .with(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+        this.writer = mapper.writerFor(entityClass)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Codec producing JSON text
+     */
+    public static <T> JacksonEntityCodec<T> json(Class<T> entityClass) {
+        return new JacksonEntityCodec<>(fieldMapper(JsonMapper.builder()), entityClass);
+    }
+
+    /**
+     * Codec producing the binary Smile format
+     */
+    public static <T> JacksonEntityCodec<T> smile(Class<T> entityClass) {
+        return new JacksonEntityCodec<>(fieldMapper(SmileMapper.builder()), entityClass);
+    }
+
+    /**
+     * Codec producing the binary CBOR format
+     */
+    public static <T> JacksonEntityCodec<T> cbor(Class<T> entityClass) {
+        return new JacksonEntityCodec<>(fieldMapper(CBORMapper.builder()), entityClass);
+    }
+
+    /**
+     * Binary codec for the given encoding, or null for plain JSON
+     */
+    public static <T> JacksonEntityCodec<T> binary(EntityEncoding encoding, Class<T> entityClass) {
+        return switch (encoding) {
+            case SMILE -> smile(entityClass);
+            case CBOR -> cbor(entityClass);
+            case JSON -> null;
+        };
+    }
+
+    private static ObjectMapper fieldMapper(MapperBuilder<?, ?> builder) {
+        return builder.findAndAddModules()
+                .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .build();
+    }
+
+    @Override
+    public byte[] encode(T entity) throws IOException {
+        return writer.writeValueAsBytes(entity);
+    }
+
+    @Override
+    public T decode(byte[] data) throws IOException {
+        return reader.readValue(data);
+    }
+
+    /**
+     * Serialize an entity to a string; only meaningful for textual formats
+     */
+    public String encodeToString(T entity) throws IOException {
+        return writer.writeValueAsString(entity);
+    }
+
+    /**
+     * Decode an entity from a string produced by {@link #encodeToString(Object)}
+     */
+    public T decode(String data) throws IOException {
+        return reader.readValue(data);
+    }
+
+    /**
+     * Decode only the given properties of an encoded entity; all other
+     * properties are left unset
+     */
+    public T decode(byte[] data, Collection<String> properties) throws IOException {
+        JsonNode tree = mapper.readTree(data);
+        if (tree instanceof ObjectNode objectNode) {
+            objectNode.retain(properties);
+        }
+        return reader.readValue(tree);
+    }
+
+    /**
+     * Build an entity from a flat map of property values
+     */
+    public T fromProperties(Map<String, ?> properties) throws IOException {
+        return reader.readValue(mapper.<JsonNode>valueToTree(properties));
+    }
+}
@@ -1,15 +1,22 @@
 package com.h12.seekly.config;
 
+import com.h12.seekly.codec.EntityCodec;
+import com.h12.seekly.core.SearchableEntity;
+import com.h12.seekly.enums.BulkLoadMode;
+import com.h12.seekly.enums.EntityEncoding;
+import com.h12.seekly.enums.HydrationMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 /**
  * Configuration for PostgreSQL-based search engine.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PostgresSearchConfig {
@@ -39,6 +46,187 @@ public class PostgresSearchConfig {
      */
     private String entityType;
 
+    /**
+     * Concrete entity class used to decode stored entities
+     */
+    private Class<? extends SearchableEntity> entityClass;
+
+    /**
+     * Encoding of the additional binary entity copy used for faster hydration
+     */
+    @Builder.Default
+    private EntityEncoding entityEncoding = EntityEncoding.JSON;
+
+    /**
+     * Custom codec for the binary entity copy (overrides entityEncoding)
+     */
+    private EntityCodec<?> entityCodec;
+
+    /**
+     * Where search results are hydrated from
+     */
+    @Builder.Default
+    private HydrationMode hydrationMode = HydrationMode.DATABASE;
+
+    /**
+     * Whether to keep the serialized entity in a Lucene stored field
+     */
+    @Builder.Default
+    private boolean storeEntitySource = false;
+
+    /**
+     * Maximum offset + maxResults for offset paging; deeper pages use cursors
+     */
+    @Builder.Default
+    private int maxResultWindow = 10000;
+
+    /**
+     * How long in milliseconds the searcher a paging cursor was issued against
+     * is kept after a newer searcher replaced it; cursors expire after that
+     */
+    @Builder.Default
+    private long cursorKeepAliveMs = 60000;
+
+    /**
+     * Maximum number of queries held by the filter cache (0 disables it)
+     */
+    @Builder.Default
+    private int queryCacheMaxQueries = 1000;
+
+    /**
+     * Maximum memory used by the filter cache in bytes
+     */
+    @Builder.Default
+    private long queryCacheMaxRamBytes = 32 * 1024 * 1024;
+
+    /**
+     * Segments with fewer documents are not cached
+     */
+    @Builder.Default
+    private int queryCacheMinSegmentDocs = 10000;
+
+    /**
+     * Number of recent uses after which a filter gets cached
+     */
+    @Builder.Default
+    private int queryCacheMinFilterFrequency = 2;
+
+    /**
+     * Whether to score the searchable fields as one combined field (BM25F)
+     * instead of summing per-field scores
+     */
+    @Builder.Default
+    private boolean combinedFieldScoring = false;
+
+    /**
+     * Relative weights of searchable fields; fields not listed weigh 1
+     */
+    @Builder.Default
+    private Map<String, Float> searchFieldWeights = Map.of();
+
+    /**
+     * Maximum number of compiled queries kept for reuse (0 disables the cache)
+     */
+    @Builder.Default
+    private int queryPlanCacheSize = 1000;
+
+    /**
+     * Maximum number of search responses cached for hot queries (0 disables the cache)
+     */
+    @Builder.Default
+    private int resultCacheMaxEntries = 0;
+
+    /**
+     * Maximum estimated memory used by cached search responses in bytes
+     */
+    @Builder.Default
+    private long resultCacheMaxRamBytes = 16 * 1024 * 1024;
+
+    /**
+     * Deepest offset + maxResults whose responses are cached
+     */
+    @Builder.Default
+    private int resultCacheMaxResults = 100;
+
+    /**
+     * Maximum number of asynchronous operations running against the engine at once
+     */
+    @Builder.Default
+    private int asyncMaxConcurrency = 256;
+
+    /**
+     * Timeout of asynchronous operations in milliseconds, including the wait for
+     * capacity (0 waits indefinitely)
+     */
+    @Builder.Default
+    private long asyncTimeoutMs = 30000;
+
+    /**
+     * Threads searching index slices in parallel (0 searches on the calling thread)
+     */
+    @Builder.Default
+    private int searchThreads = 0;
+
+    /**
+     * Maximum number of documents per parallel search slice
+     */
+    @Builder.Default
+    private int searchSliceMaxDocs = 250000;
+
+    /**
+     * Maximum number of segments per parallel search slice
+     */
+    @Builder.Default
+    private int searchSliceMaxSegments = 5;
+
+    /**
+     * Threads preparing batches during bulk ingest (0 uses one per available processor)
+     */
+    @Builder.Default
+    private int ingestThreads = 0;
+
+    /**
+     * Number of entities per bulk ingest batch
+     */
+    @Builder.Default
+    private int ingestBatchSize = 1000;
+
+    /**
+     * Maximum number of bulk ingest batches in flight before the caller blocks
+     */
+    @Builder.Default
+    private int ingestMaxPendingBatches = 8;
+
+    /**
+     * How bulk ingest batches are written to PostgreSQL
+     */
+    @Builder.Default
+    private BulkLoadMode bulkLoadMode = BulkLoadMode.BATCH_INSERT;
+
+    /**
+     * Whether Lucene is fed from a transactional outbox written with every PostgreSQL change
+     */
+    @Builder.Default
+    private boolean outboxEnabled = false;
+
+    /**
+     * Maximum number of outbox entries applied to the index per pass
+     */
+    @Builder.Default
+    private int outboxBatchSize = 500;
+
+    /**
+     * Interval between outbox polls in milliseconds
+     */
+    @Builder.Default
+    private long outboxPollIntervalMs = 200;
+
+    /**
+     * Threads scanning PostgreSQL partitions during a rebuild from source (0 uses one per available processor)
+     */
+    @Builder.Default
+    private int reindexThreads = 0;
+
     /**
      * Maximum connection pool size
      */
@@ -92,4 +280,31 @@ public class PostgresSearchConfig {
      */
     @Builder.Default
     private boolean enableAutoOptimization = true;
+
+    /**
+     * Minimum pause in milliseconds between searcher reopens when a writer is
+     * waiting for its changes to become visible
+     */
+    @Builder.Default
+    private long searcherRefreshIntervalMs = 25;
+
+    /**
+     * Maximum time in milliseconds before indexed changes become visible to
+     * searches
+     */
+    @Builder.Default
+    private long searcherMaxStalenessMs = 1000;
+
+    /**
+     * Commit pending index changes at least this often in milliseconds
+     * (0 disables timed commits; with commitMaxDocs also 0 every write commits)
+     */
+    @Builder.Default
+    private long commitIntervalMs = 1000;
+
+    /**
+     * Commit once this many index changes are pending (0 disables)
+     */
+    @Builder.Default
+    private long commitMaxDocs = 10000;
 }
\ No newline at end of file
@@ -60,10 +60,12 @@ public class SearchEngineConfiguration {
     }
 
     /**
-     * Configure PostgreSQL search engine
+     * Configure PostgreSQL search engine; created only once an entity class is
+     * configured, since stored entities cannot be decoded without one
      */
     @Bean
     @ConditionalOnProperty(name = "seekly.search.postgres.enabled", havingValue = "true", matchIfMissing = true)
+    @ConditionalOnProperty(name = "seekly.search.postgres.entity-class")
     public <T extends SearchableEntity> SearchEngine<T> postgresSearchEngine(
             SpringPostgresSearchConfig config) throws IOException {
 
@@ -83,8 +85,6 @@ public class SearchEngineConfiguration {
 
         log.info("Creating Lucene search engine for entity type: {}", config.getEntityType());
 
-        return SearchEngineFactory.createLuceneSearchEngine(
-                config.getLuceneIndexPath(),
-                config.getEntityType());
+        return SearchEngineFactory.createLuceneSearchEngine(config.toPostgresSearchConfig());
     }
 }
\ No newline at end of file
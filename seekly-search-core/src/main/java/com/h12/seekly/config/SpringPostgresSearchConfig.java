@@ -1,5 +1,9 @@
 package com.h12.seekly.config;
 
+import com.h12.seekly.core.SearchableEntity;
+import com.h12.seekly.enums.BulkLoadMode;
+import com.h12.seekly.enums.EntityEncoding;
+import com.h12.seekly.enums.HydrationMode;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -10,6 +14,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Max;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Spring Boot configuration properties for PostgreSQL search engine.
  * Supports externalized configuration via application.yml/properties.
@@ -51,6 +58,175 @@ public class SpringPostgresSearchConfig {
     @NotBlank(message = "Entity type is required")
     private String entityType;
 
+    /**
+     * Concrete entity class used to decode stored entities
+     */
+    private Class<? extends SearchableEntity> entityClass;
+
+    /**
+     * Encoding of the additional binary entity copy used for faster hydration
+     */
+    private EntityEncoding entityEncoding = EntityEncoding.JSON;
+
+    /**
+     * Where search results are hydrated from
+     */
+    private HydrationMode hydrationMode = HydrationMode.DATABASE;
+
+    /**
+     * Whether to keep the serialized entity in a Lucene stored field
+     */
+    private boolean storeEntitySource = false;
+
+    /**
+     * Maximum offset + maxResults for offset paging; deeper pages use cursors
+     */
+    @Min(value = 1, message = "Max result window must be at least 1")
+    private int maxResultWindow = 10000;
+
+    /**
+     * How long in milliseconds the searcher a paging cursor was issued against
+     * is kept after a newer searcher replaced it; cursors expire after that
+     */
+    @Min(value = 0, message = "Cursor keep-alive cannot be negative")
+    private long cursorKeepAliveMs = 60000;
+
+    /**
+     * Maximum number of queries held by the filter cache (0 disables it)
+     */
+    @Min(value = 0, message = "Query cache max queries cannot be negative")
+    private int queryCacheMaxQueries = 1000;
+
+    /**
+     * Maximum memory used by the filter cache in bytes
+     */
+    @Min(value = 0, message = "Query cache max RAM bytes cannot be negative")
+    private long queryCacheMaxRamBytes = 32 * 1024 * 1024;
+
+    /**
+     * Segments with fewer documents are not cached
+     */
+    @Min(value = 0, message = "Query cache min segment docs cannot be negative")
+    private int queryCacheMinSegmentDocs = 10000;
+
+    /**
+     * Number of recent uses after which a filter gets cached
+     */
+    @Min(value = 1, message = "Query cache min filter frequency must be at least 1")
+    private int queryCacheMinFilterFrequency = 2;
+
+    /**
+     * Whether to score the searchable fields as one combined field (BM25F)
+     * instead of summing per-field scores
+     */
+    private boolean combinedFieldScoring = false;
+
+    /**
+     * Relative weights of searchable fields; fields not listed weigh 1
+     */
+    private Map<String, Float> searchFieldWeights = new HashMap<>();
+
+    /**
+     * Maximum number of compiled queries kept for reuse (0 disables the cache)
+     */
+    @Min(value = 0, message = "Query plan cache size cannot be negative")
+    private int queryPlanCacheSize = 1000;
+
+    /**
+     * Maximum number of search responses cached for hot queries (0 disables the cache)
+     */
+    @Min(value = 0, message = "Result cache max entries cannot be negative")
+    private int resultCacheMaxEntries = 0;
+
+    /**
+     * Maximum estimated memory used by cached search responses in bytes
+     */
+    @Min(value = 0, message = "Result cache max RAM bytes cannot be negative")
+    private long resultCacheMaxRamBytes = 16 * 1024 * 1024;
+
+    /**
+     * Deepest offset + maxResults whose responses are cached
+     */
+    @Min(value = 1, message = "Result cache max results must be at least 1")
+    private int resultCacheMaxResults = 100;
+
+    /**
+     * Maximum number of asynchronous operations running against the engine at once
+     */
+    @Min(value = 1, message = "Async max concurrency must be at least 1")
+    private int asyncMaxConcurrency = 256;
+
+    /**
+     * Timeout of asynchronous operations in milliseconds, including the wait for
+     * capacity (0 waits indefinitely)
+     */
+    @Min(value = 0, message = "Async timeout cannot be negative")
+    private long asyncTimeoutMs = 30000;
+
+    /**
+     * Threads searching index slices in parallel (0 searches on the calling thread)
+     */
+    @Min(value = 0, message = "Search threads cannot be negative")
+    private int searchThreads = 0;
+
+    /**
+     * Maximum number of documents per parallel search slice
+     */
+    @Min(value = 1, message = "Search slice max docs must be at least 1")
+    private int searchSliceMaxDocs = 250000;
+
+    /**
+     * Maximum number of segments per parallel search slice
+     */
+    @Min(value = 1, message = "Search slice max segments must be at least 1")
+    private int searchSliceMaxSegments = 5;
+
+    /**
+     * Threads preparing batches during bulk ingest (0 uses one per available processor)
+     */
+    @Min(value = 0, message = "Ingest threads cannot be negative")
+    private int ingestThreads = 0;
+
+    /**
+     * Number of entities per bulk ingest batch
+     */
+    @Min(value = 1, message = "Ingest batch size must be at least 1")
+    private int ingestBatchSize = 1000;
+
+    /**
+     * Maximum number of bulk ingest batches in flight before the caller blocks
+     */
+    @Min(value = 1, message = "Ingest max pending batches must be at least 1")
+    private int ingestMaxPendingBatches = 8;
+
+    /**
+     * How bulk ingest batches are written to PostgreSQL
+     */
+    private BulkLoadMode bulkLoadMode = BulkLoadMode.BATCH_INSERT;
+
+    /**
+     * Whether Lucene is fed from a transactional outbox written with every PostgreSQL change
+     */
+    private boolean outboxEnabled = false;
+
+    /**
+     * Maximum number of outbox entries applied to the index per pass
+     */
+    @Min(value = 1, message = "Outbox batch size must be at least 1")
+    private int outboxBatchSize = 500;
+
+    /**
+     * Interval between outbox polls in milliseconds
+     */
+    @Min(value = 1, message = "Outbox poll interval must be at least 1ms")
+    private long outboxPollIntervalMs = 200;
+
+    /**
+     * Threads scanning PostgreSQL partitions during a rebuild from source (0 uses one per available processor)
+     */
+    @Min(value = 0, message = "Reindex threads cannot be negative")
+    private int reindexThreads = 0;
+
     /**
      * Maximum connection pool size
      */
@@ -103,6 +279,33 @@ public class SpringPostgresSearchConfig {
      */
     private boolean enableAutoOptimization = true;
 
+    /**
+     * Minimum pause in milliseconds between searcher reopens when a writer is
+     * waiting for its changes to become visible
+     */
+    @Min(value = 1, message = "Searcher refresh interval must be at least 1ms")
+    private long searcherRefreshIntervalMs = 25;
+
+    /**
+     * Maximum time in milliseconds before indexed changes become visible to
+     * searches
+     */
+    @Min(value = 10, message = "Searcher max staleness must be at least 10ms")
+    private long searcherMaxStalenessMs = 1000;
+
+    /**
+     * Commit pending index changes at least this often in milliseconds
+     * (0 disables timed commits; with commitMaxDocs also 0 every write commits)
+     */
+    @Min(value = 0, message = "Commit interval cannot be negative")
+    private long commitIntervalMs = 1000;
+
+    /**
+     * Commit once this many index changes are pending (0 disables)
+     */
+    @Min(value = 0, message = "Commit max docs cannot be negative")
+    private long commitMaxDocs = 10000;
+
     /**
      * Prometheus metrics configuration
      */
@@ -178,6 +381,35 @@ public class SpringPostgresSearchConfig {
                 .dbPassword(dbPassword)
                 .luceneIndexPath(luceneIndexPath)
                 .entityType(entityType)
+                .entityClass(entityClass)
+                .entityEncoding(entityEncoding)
+                .hydrationMode(hydrationMode)
+                .storeEntitySource(storeEntitySource)
+                .maxResultWindow(maxResultWindow)
+                .cursorKeepAliveMs(cursorKeepAliveMs)
+                .queryCacheMaxQueries(queryCacheMaxQueries)
+                .queryCacheMaxRamBytes(queryCacheMaxRamBytes)
+                .queryCacheMinSegmentDocs(queryCacheMinSegmentDocs)
+                .queryCacheMinFilterFrequency(queryCacheMinFilterFrequency)
+                .combinedFieldScoring(combinedFieldScoring)
+                .searchFieldWeights(searchFieldWeights)
+                .queryPlanCacheSize(queryPlanCacheSize)
+                .resultCacheMaxEntries(resultCacheMaxEntries)
+                .resultCacheMaxRamBytes(resultCacheMaxRamBytes)
+                .resultCacheMaxResults(resultCacheMaxResults)
+                .asyncMaxConcurrency(asyncMaxConcurrency)
+                .asyncTimeoutMs(asyncTimeoutMs)
+                .searchThreads(searchThreads)
+                .searchSliceMaxDocs(searchSliceMaxDocs)
+                .searchSliceMaxSegments(searchSliceMaxSegments)
+                .ingestThreads(ingestThreads)
+                .ingestBatchSize(ingestBatchSize)
+                .ingestMaxPendingBatches(ingestMaxPendingBatches)
+                .bulkLoadMode(bulkLoadMode)
+                .outboxEnabled(outboxEnabled)
+                .outboxBatchSize(outboxBatchSize)
+                .outboxPollIntervalMs(outboxPollIntervalMs)
+                .reindexThreads(reindexThreads)
                 .maxPoolSize(maxPoolSize)
                 .minIdle(minIdle)
                 .connectionTimeout(connectionTimeout)
@@ -187,6 +419,10 @@ public class SpringPostgresSearchConfig {
                 .enableQueryPerformance(enableQueryPerformance)
                 .autoOptimizeThreshold(autoOptimizeThreshold)
                 .enableAutoOptimization(enableAutoOptimization)
+                .searcherRefreshIntervalMs(searcherRefreshIntervalMs)
+                .searcherMaxStalenessMs(searcherMaxStalenessMs)
+                .commitIntervalMs(commitIntervalMs)
+                .commitMaxDocs(commitMaxDocs)
                 .build();
     }
 }
\ No newline at end of file
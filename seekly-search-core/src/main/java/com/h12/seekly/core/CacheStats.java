@@ -0,0 +1,51 @@
+package com.h12.seekly.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statistics of an engine-level cache such as the query plan cache.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+
+    /**
+     * Whether the cache is enabled
+     */
+    private boolean enabled;
+
+    /**
+     * Number of lookups served from the cache
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups that had to compute the value
+     */
+    private long missCount;
+
+    /**
+     * Number of entries evicted to stay within bounds
+     */
+    private long evictionCount;
+
+    /**
+     * Number of entries currently cached
+     */
+    private long size;
+
+    /**
+     * Approximate memory used by the cached entries in bytes
+     */
+    private long ramBytesUsed;
+
+    /**
+     * Share of lookups served from the cache (0.0 to 1.0)
+     */
+    private double hitRate;
+}
@@ -0,0 +1,46 @@
+package com.h12.seekly.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a bulk ingest, reported after every completed batch.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestProgress {
+
+    /**
+     * Entity type being ingested
+     */
+    private String entityType;
+
+    /**
+     * Number of entities written so far
+     */
+    private long processed;
+
+    /**
+     * Number of batches written so far
+     */
+    private long batches;
+
+    /**
+     * Time since the ingest started in milliseconds
+     */
+    private long elapsedMs;
+
+    /**
+     * Average throughput since the ingest started
+     */
+    private double entitiesPerSecond;
+
+    /**
+     * Whether this is the final report
+     */
+    private boolean done;
+}
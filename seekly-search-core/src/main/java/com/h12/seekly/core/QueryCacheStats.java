@@ -0,0 +1,56 @@
+package com.h12.seekly.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statistics of the per-segment query cache that holds filter results.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryCacheStats {
+
+    /**
+     * Whether the query cache is enabled
+     */
+    private boolean enabled;
+
+    /**
+     * Number of lookups that found a cached segment result
+     */
+    private long hitCount;
+
+    /**
+     * Number of lookups that had to evaluate the query
+     */
+    private long missCount;
+
+    /**
+     * Number of cached segment results evicted
+     */
+    private long evictionCount;
+
+    /**
+     * Number of segment results currently cached
+     */
+    private long cacheSize;
+
+    /**
+     * Number of segment results ever cached
+     */
+    private long cacheCount;
+
+    /**
+     * Memory used by the cache in bytes
+     */
+    private long ramBytesUsed;
+
+    /**
+     * Share of lookups served from the cache (0.0 to 1.0)
+     */
+    private double hitRate;
+}
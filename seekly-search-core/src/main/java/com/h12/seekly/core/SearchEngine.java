@@ -1,36 +1,92 @@
 package com.h12.seekly.core;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
 
 /**
  * Main interface for the Seekly search engine framework.
  * Provides core search functionality with comprehensive metrics tracking.
  */
-public interface SearchEngine<T extends SearchableEntity> {
+public interface SearchEngine<T extends SearchableEntity> extends AutoCloseable {
 
     /**
      * Index a single entity for search
      */
     void index(T entity);
 
+    /**
+     * Index a single entity with visibility/durability options
+     */
+    void index(T entity, WriteOptions options);
+
     /**
      * Index multiple entities for search
      */
     void indexBatch(List<T> entities);
 
+    /**
+     * Index multiple entities with visibility/durability options
+     */
+    void indexBatch(List<T> entities, WriteOptions options);
+
+    /**
+     * Index entities pulled lazily from an iterator in bounded-memory batches
+     *
+     * @return number of entities indexed
+     */
+    long indexAll(Iterator<T> entities, WriteOptions options);
+
+    /**
+     * Index entities pulled lazily from a stream in bounded-memory batches
+     *
+     * @return number of entities indexed
+     */
+    long indexAll(Stream<T> entities, WriteOptions options);
+
+    /**
+     * Index entities from a reactive publisher, requesting only as many as one
+     * batch can buffer
+     *
+     * @return future completed with the number of entities indexed
+     */
+    CompletableFuture<Long> indexAll(Flow.Publisher<T> entities, WriteOptions options);
+
     /**
      * Remove an entity from the search index
      */
     void removeFromIndex(String entityId);
 
+    /**
+     * Remove an entity from the search index with visibility/durability options
+     */
+    void removeFromIndex(String entityId, WriteOptions options);
+
     /**
      * Update an entity in the search index
      */
     void updateIndex(T entity);
 
+    /**
+     * Update an entity in the search index with visibility/durability options
+     */
+    void updateIndex(T entity, WriteOptions options);
+
+    /**
+     * Make all changes indexed so far visible to searches
+     */
+    void flush();
+
+    /**
+     * Durably commit all changes indexed so far
+     */
+    void commit();
+
     /**
      * Search for entities with basic query
      */
@@ -51,6 +107,36 @@ public interface SearchEngine<T extends SearchableEntity> {
      */
     SearchResponse<T> search(String query, Map<String, Object> filters, SearchOptions options);
 
+    /**
+     * Search asynchronously on the engine's virtual-thread executor
+     */
+    CompletableFuture<SearchResponse<T>> searchAsync(String query, SearchOptions options);
+
+    /**
+     * Search asynchronously with filters on the engine's virtual-thread executor
+     */
+    CompletableFuture<SearchResponse<T>> searchAsync(String query, Map<String, Object> filters, SearchOptions options);
+
+    /**
+     * Index a single entity asynchronously
+     */
+    CompletableFuture<Void> indexAsync(T entity);
+
+    /**
+     * Index a single entity asynchronously with visibility/durability options
+     */
+    CompletableFuture<Void> indexAsync(T entity, WriteOptions options);
+
+    /**
+     * Index multiple entities asynchronously
+     */
+    CompletableFuture<Void> indexBatchAsync(List<T> entities);
+
+    /**
+     * Index multiple entities asynchronously with visibility/durability options
+     */
+    CompletableFuture<Void> indexBatchAsync(List<T> entities, WriteOptions options);
+
     /**
      * Get search suggestions for autocomplete
      */
@@ -82,15 +168,45 @@ public interface SearchEngine<T extends SearchableEntity> {
     SearchPerformanceStats getPerformanceStats();
 
     /**
-     * Clear the entire search index
+     * Clear the entire search index; the replaced index is kept for
+     * {@link #rollbackIndex()}
      */
     void clearIndex();
 
+    /**
+     * Build a new index from the given entities while searches keep using the
+     * current one, then switch to it atomically; the replaced index is kept for
+     * {@link #rollbackIndex()}
+     *
+     * @return number of entities in the new index
+     */
+    long rebuildIndex(Iterator<T> entities);
+
+    /**
+     * Switch back to the index replaced by the last rebuild or clear
+     */
+    void rollbackIndex();
+
     /**
      * Get index statistics
      */
     IndexStats getIndexStats();
 
+    /**
+     * Get statistics of the filter query cache
+     */
+    QueryCacheStats getQueryCacheStats();
+
+    /**
+     * Get statistics of the compiled query plan cache
+     */
+    CacheStats getQueryPlanCacheStats();
+
+    /**
+     * Get statistics of the search result cache
+     */
+    CacheStats getResultCacheStats();
+
     /**
      * Optimize the search index
      */
@@ -100,4 +216,10 @@ public interface SearchEngine<T extends SearchableEntity> {
      * Check if the search engine is healthy
      */
     boolean isHealthy();
+
+    /**
+     * Commit pending changes and release the index writer and other resources
+     */
+    @Override
+    void close();
 }
\ No newline at end of file
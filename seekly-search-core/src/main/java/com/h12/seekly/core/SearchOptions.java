@@ -6,12 +6,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration options for search operations.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SearchOptions {
@@ -28,6 +29,12 @@ public class SearchOptions {
     @Builder.Default
     private int offset = 0;
 
+    /**
+     * Cursor returned by the previous page (takes precedence over offset); it
+     * expires when the index changes
+     */
+    private String cursor;
+
     /**
      * Whether to include highlights in results
      */
@@ -103,6 +110,18 @@ public class SearchOptions {
      */
     private List<String> facetFields;
 
+    /**
+     * Bucket edges for numeric facet fields (e.g. price: 0, 50, 100, 500);
+     * numeric fields without edges are counted by distinct value
+     */
+    private Map<String, List<Double>> facetRanges;
+
+    /**
+     * Maximum number of values returned per value facet
+     */
+    @Builder.Default
+    private int maxFacetValues = 10;
+
     /**
      * Whether to include suggestions in response
      */
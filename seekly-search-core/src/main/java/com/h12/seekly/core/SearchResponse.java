@@ -14,7 +14,7 @@ import java.util.Map;
  * metrics.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SearchResponse<T extends SearchableEntity> {
@@ -29,6 +29,11 @@ public class SearchResponse<T extends SearchableEntity> {
      */
     private long totalHits;
 
+    /**
+     * Cursor for fetching the next page (null when there are no more results)
+     */
+    private String nextCursor;
+
     /**
      * Search execution time in milliseconds
      */
@@ -55,9 +60,9 @@ public class SearchResponse<T extends SearchableEntity> {
     private Map<String, Object> filters;
 
     /**
-     * Facets and their counts
+     * Facet counts by field, then by value or range bucket
      */
-    private Map<String, Long> facets;
+    private Map<String, Map<String, Long>> facets;
 
     /**
      * Search suggestions for the query
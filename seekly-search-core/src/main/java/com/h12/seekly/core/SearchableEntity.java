@@ -3,6 +3,7 @@ package com.h12.seekly.core;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -32,6 +33,15 @@ public interface SearchableEntity {
     @JsonIgnore
     Map<String, String> getSearchableFields();
 
+    /**
+     * Fields that searches can filter on (strings, enums, booleans, numbers,
+     * dates or collections of those)
+     */
+    @JsonIgnore
+    default Map<String, Object> getFilterableFields() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Relevance score for ranking (0.0 to 1.0)
      */
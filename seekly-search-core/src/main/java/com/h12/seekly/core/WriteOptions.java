@@ -0,0 +1,35 @@
+package com.h12.seekly.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.function.Consumer;
+
+/**
+ * Configuration options for write (index, update and remove) operations.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteOptions {
+
+    /**
+     * Whether to block until the change is visible to searches
+     */
+    @Builder.Default
+    private boolean waitForVisibility = false;
+
+    /**
+     * Whether to block until the change is committed to disk
+     */
+    @Builder.Default
+    private boolean waitForCommit = false;
+
+    /**
+     * Callback receiving bulk ingest progress after every batch
+     */
+    private Consumer<IngestProgress> progressListener;
+}
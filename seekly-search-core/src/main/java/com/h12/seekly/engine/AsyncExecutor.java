@@ -0,0 +1,104 @@
+package com.h12.seekly.engine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs an engine's asynchronous operations on virtual threads.
+ * Every task gets its own virtual thread, so callers blocked on JDBC or disk
+ * no longer hold platform threads; a semaphore caps how many tasks run against
+ * the engine at once, and tasks still waiting for a permit when the timeout
+ * expires are rejected. A timed-out task that already started is not
+ * interrupted, since interrupting Lucene or JDBC I/O can close the underlying
+ * channels; it finishes in the background and keeps its permit until then.
+ */
+@Slf4j
+public class AsyncExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long timeoutMs;
+    private final String entityType;
+
+    public AsyncExecutor(String entityType, int maxConcurrency, long timeoutMs) {
+        this.entityType = entityType;
+        this.maxConcurrency = maxConcurrency;
+        this.timeoutMs = timeoutMs;
+        this.permits = new Semaphore(maxConcurrency);
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("seekly-async-" + entityType + "-", 0).factory());
+    }
+
+    /**
+     * Run the task on a virtual thread once a permit is available; the future
+     * fails with a {@link java.util.concurrent.TimeoutException} if the task does
+     * not complete within the timeout
+     */
+    public <R> CompletableFuture<R> submit(Callable<R> task) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> run(task, future));
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return timeoutMs > 0 ? future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS) : future;
+    }
+
+    /**
+     * Number of tasks currently running
+     */
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Stop accepting tasks and wait for running ones to finish
+     */
+    @Override
+    public void close() {
+        executor.close();
+        log.debug("Async executor closed for entity type: {}", entityType);
+    }
+
+    private <R> void run(Callable<R> task, CompletableFuture<R> future) {
+        try {
+            boolean acquired = timeoutMs > 0
+                    ? permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)
+                    : acquire();
+            if (!acquired) {
+                future.completeExceptionally(new RejectedExecutionException(
+                        "No capacity for entity type " + entityType + " within " + timeoutMs + "ms, "
+                                + maxConcurrency + " operations running"));
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return;
+        }
+
+        try {
+            // Skip work whose caller already gave up
+            if (!future.isDone()) {
+                future.complete(task.call());
+            }
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private boolean acquire() throws InterruptedException {
+        permits.acquire();
+        return true;
+    }
+}
@@ -0,0 +1,306 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.IngestProgress;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Staged pipeline for bulk ingest.
+ * The caller thread only cuts the input into batches, partitioned by a hash of
+ * the entity ID so every entity with the same ID goes to the same worker. Each
+ * batch is prepared (documents built, entities serialized) on its worker
+ * thread, then passed to the store stage (PostgreSQL) and the index stage (the
+ * shared, thread-safe {@code IndexWriter}) in that order, so an entity is never
+ * searchable before it can be hydrated; with several workers the store writes
+ * of one batch overlap with the indexing of others. A worker runs its batches
+ * in input order and only the last occurrence of an ID within a batch is kept,
+ * so when the input repeats an ID its last occurrence wins. At most
+ * {@code maxPendingBatches} batches are in flight, so the caller blocks when
+ * the stages fall behind and memory stays bounded by
+ * {@code (maxPendingBatches + threads) * batchSize} entities. A single batch is
+ * processed on the caller thread without any hand-off. The
+ * optional batch lock is held around the store and index stages of each batch
+ * only, never for a whole run, so a long stream does not hold off an index
+ * swap.
+ *
+ * @param <T> entity type
+ * @param <P> prepared form of an entity shared by both stages
+ */
+@Slf4j
+public class BulkIngestPipeline<T, P> implements Closeable {
+
+    /**
+     * Work applied to every entity or batch; may throw checked exceptions
+     */
+    @FunctionalInterface
+    public interface Stage<I, O> {
+        O apply(I input) throws Exception;
+    }
+
+    private final String entityType;
+    private final int batchSize;
+    private final int maxPendingBatches;
+    private final Function<T, String> idOf;
+    private final Stage<T, P> prepare;
+    private final Stage<List<P>, Long> index;
+    private final Stage<List<P>, Void> store;
+    private final Lock batchLock;
+    // One single-threaded worker per partition, so its batches run in order
+    private final List<ExecutorService> workers = new ArrayList<>();
+
+    /**
+     * @param threads   worker threads (0 uses one per available processor)
+     * @param idOf      ID of an entity, used to partition the input across workers
+     * @param prepare   builds the prepared form of an entity
+     * @param index     adds a prepared batch to the index, returning the writer's sequence number
+     * @param store     persists a prepared batch before it is indexed, or null when there is no store
+     * @param batchLock held while a batch is stored and indexed, or null
+     */
+    public BulkIngestPipeline(String entityType, int threads, int batchSize, int maxPendingBatches,
+            Function<T, String> idOf, Stage<T, P> prepare, Stage<List<P>, Long> index, Stage<List<P>, Void> store,
+            Lock batchLock) {
+        this.entityType = entityType;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPendingBatches = Math.max(1, maxPendingBatches);
+        this.idOf = idOf;
+        this.prepare = prepare;
+        this.index = index;
+        this.store = store;
+        this.batchLock = batchLock;
+
+        // Document building and serialization are CPU-bound
+        int workerCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable,
+                        "seekly-ingest-" + entityType + "-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    /**
+     * Batch size used to cut the input
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Ingest all entities, blocking until every batch is stored and indexed.
+     * The iterator is consumed lazily, so inputs larger than memory can be
+     * streamed through
+     */
+    public Outcome run(Iterator<T> entities, Consumer<IngestProgress> progressListener) throws Exception {
+        return run(entities, index, progressListener);
+    }
+
+    /**
+     * Ingest all entities into the given index stage instead of the default
+     * one, sharing the same workers; used to build a new index alongside the
+     * live one
+     */
+    public Outcome run(Iterator<T> entities, Stage<List<P>, Long> index, Consumer<IngestProgress> progressListener)
+            throws Exception {
+        Progress progress = new Progress(progressListener);
+        List<T> batch = nextBatch(entities);
+
+        if (!entities.hasNext()) {
+            // Everything fits in one batch: no hand-off needed
+            List<T> unique = latestById(batch);
+            long sequence = unique.isEmpty() ? -1 : process(unique, index);
+            progress.batchDone(unique.size(), true);
+            return new Outcome(sequence, unique.size());
+        }
+
+        Run run = new Run(index, progress);
+        for (T entity : batch) {
+            run.add(entity);
+        }
+        while (entities.hasNext() && !run.failed()) {
+            run.add(entities.next());
+        }
+        return run.finish();
+    }
+
+    /**
+     * Result of a run
+     *
+     * @param sequence  highest index sequence number, or -1 when nothing was indexed
+     * @param processed number of entities stored and indexed
+     */
+    public record Outcome(long sequence, long processed) {
+    }
+
+    @Override
+    public void close() {
+        workers.forEach(ExecutorService::shutdown);
+    }
+
+    private List<T> nextBatch(Iterator<T> entities) {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && entities.hasNext()) {
+            batch.add(entities.next());
+        }
+        return batch;
+    }
+
+    /**
+     * The last occurrence of each ID in the batch, in input order
+     */
+    private List<T> latestById(List<T> batch) {
+        Map<String, T> latest = new LinkedHashMap<>();
+        for (T entity : batch) {
+            String id = idOf.apply(entity);
+            latest.remove(id);
+            latest.put(id, entity);
+        }
+        return latest.size() == batch.size() ? batch : new ArrayList<>(latest.values());
+    }
+
+    private long process(List<T> batch, Stage<List<P>, Long> index) throws Exception {
+        List<P> prepared = new ArrayList<>(batch.size());
+        for (T entity : batch) {
+            prepared.add(prepare.apply(entity));
+        }
+
+        if (batchLock != null) {
+            batchLock.lock();
+        }
+        try {
+            // Store first so every indexed entity can be hydrated
+            if (store != null) {
+                store.apply(prepared);
+            }
+            return index.apply(prepared);
+        } finally {
+            if (batchLock != null) {
+                batchLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Batches of one multi-batch run, cut per partition and handed to the
+     * partition's worker
+     */
+    private final class Run {
+        private final Stage<List<P>, Long> index;
+        private final Progress progress;
+        private final Semaphore pending = new Semaphore(maxPendingBatches);
+        private final AtomicLong maxSequence = new AtomicLong(-1);
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private final List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        private final List<List<T>> partitions = new ArrayList<>();
+
+        Run(Stage<List<P>, Long> index, Progress progress) {
+            this.index = index;
+            this.progress = progress;
+            for (int i = 0; i < workers.size(); i++) {
+                partitions.add(new ArrayList<>(batchSize));
+            }
+        }
+
+        boolean failed() {
+            return failure.get() != null;
+        }
+
+        void add(T entity) throws InterruptedException {
+            int partition = Math.floorMod(Objects.hashCode(idOf.apply(entity)), partitions.size());
+            List<T> batch = partitions.get(partition);
+            batch.add(entity);
+            if (batch.size() >= batchSize) {
+                submit(partition);
+            }
+        }
+
+        Outcome finish() throws Exception {
+            for (int partition = 0; partition < partitions.size() && !failed(); partition++) {
+                if (!partitions.get(partition).isEmpty()) {
+                    submit(partition);
+                }
+            }
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+            if (failed()) {
+                throw failure.get();
+            }
+            long processed = progress.batchDone(0, true);
+            return new Outcome(maxSequence.get(), processed);
+        }
+
+        private void submit(int partition) throws InterruptedException {
+            // Back-pressure: wait for a batch to finish before handing off another one
+            pending.acquire();
+            List<T> current = latestById(partitions.set(partition, new ArrayList<>(batchSize)));
+            inFlight.add(CompletableFuture.runAsync(() -> {
+                try {
+                    if (!failed()) {
+                        maxSequence.accumulateAndGet(process(current, index), Math::max);
+                        progress.batchDone(current.size(), false);
+                    }
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    pending.release();
+                }
+            }, workers.get(partition)));
+            inFlight.removeIf(CompletableFuture::isDone);
+        }
+    }
+
+    /**
+     * Running totals reported to the listener
+     */
+    private final class Progress {
+        private final Consumer<IngestProgress> listener;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+
+        Progress(Consumer<IngestProgress> listener) {
+            this.listener = listener;
+        }
+
+        long batchDone(int size, boolean done) {
+            long total = processed.addAndGet(size);
+            long batchCount = size > 0 ? batches.incrementAndGet() : batches.get();
+            if (listener == null) {
+                return total;
+            }
+
+            long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+            try {
+                listener.accept(IngestProgress.builder()
+                        .entityType(entityType)
+                        .processed(total)
+                        .batches(batchCount)
+                        .elapsedMs(elapsedMs)
+                        .entitiesPerSecond(elapsedMs > 0 ? total * 1000.0 / elapsedMs : total)
+                        .done(done)
+                        .build());
+            } catch (RuntimeException e) {
+                log.warn("Ingest progress listener failed for entity type: {}", entityType, e);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.h12.seekly.engine;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.index.IndexWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Group-commit policy for an {@link IndexWriter}.
+ * Instead of fsyncing the index on every write, changes are committed every
+ * {@code commitIntervalMs} or once {@code commitMaxDocs} changes are pending,
+ * whichever comes first. With both thresholds disabled every write is
+ * committed immediately.
+ */
+@Slf4j
+public class CommitScheduler implements Closeable {
+
+    private final IndexWriter indexWriter;
+    private final String entityType;
+    private final long commitIntervalMs;
+    private final long commitMaxDocs;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong pendingChanges = new AtomicLong(0);
+    private final AtomicBoolean commitQueued = new AtomicBoolean(false);
+    private final AtomicLong totalCommits = new AtomicLong(0);
+    private volatile LocalDateTime lastCommit = LocalDateTime.now();
+    private final AtomicLong committedGeneration = new AtomicLong(-1);
+
+    public CommitScheduler(IndexWriter indexWriter, String entityType, long commitIntervalMs, long commitMaxDocs) {
+        this.indexWriter = indexWriter;
+        this.entityType = entityType;
+        this.commitIntervalMs = commitIntervalMs;
+        this.commitMaxDocs = commitMaxDocs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seekly-commit-" + entityType);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (commitIntervalMs > 0) {
+            executor.scheduleWithFixedDelay(this::commitIfPending, commitIntervalMs, commitIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Record changes applied to the writer, committing according to the policy
+     */
+    public void onChanges(long count) throws IOException {
+        if (commitIntervalMs <= 0 && commitMaxDocs <= 0) {
+            pendingChanges.addAndGet(count);
+            commit();
+            return;
+        }
+
+        long pending = pendingChanges.addAndGet(count);
+        if (commitMaxDocs > 0 && pending >= commitMaxDocs && commitQueued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                commitQueued.set(false);
+                commitIfPending();
+            });
+        }
+    }
+
+    /**
+     * Commit all pending changes now
+     */
+    public void commit() throws IOException {
+        long pending = pendingChanges.getAndSet(0);
+        try {
+            // Concurrent commits may finish out of order
+            long generation = indexWriter.commit();
+            committedGeneration.accumulateAndGet(generation, Math::max);
+        } catch (IOException | RuntimeException e) {
+            pendingChanges.addAndGet(pending);
+            throw e;
+        }
+        totalCommits.incrementAndGet();
+        lastCommit = LocalDateTime.now();
+        log.debug("Committed {} pending changes for entity type: {}", pending, entityType);
+    }
+
+    /**
+     * Number of changes not yet committed
+     */
+    public long getPendingChanges() {
+        return pendingChanges.get();
+    }
+
+    /**
+     * Number of commits performed
+     */
+    public long getTotalCommits() {
+        return totalCommits.get();
+    }
+
+    /**
+     * Writer sequence number of the last change made durable, or -1 before the
+     * first commit
+     */
+    public long getCommittedGeneration() {
+        return committedGeneration.get();
+    }
+
+    /**
+     * Time of the last successful commit
+     */
+    public LocalDateTime getLastCommit() {
+        return lastCommit;
+    }
+
+    /**
+     * Stop scheduling commits; pending changes are left to the caller to commit
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void commitIfPending() {
+        if (pendingChanges.get() == 0 || !indexWriter.isOpen()) {
+            return;
+        }
+        try {
+            commit();
+        } catch (Exception e) {
+            log.error("Scheduled commit failed for entity type: {}", entityType, e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.SearchOptions;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.SortedNumericDocValues;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.NumericUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts facet values over the hits gathered by a {@link FacetsCollector}
+ * during the same pass that collected the top documents.
+ * Keyword values are counted from sorted-set doc values per segment and only
+ * resolved to strings for ordinals that were hit; a segment with far fewer
+ * hits than distinct values counts into a map instead of an array sized by
+ * the value count. Numeric fields are counted into the range buckets given by
+ * {@link SearchOptions#getFacetRanges()}, or by distinct value when no ranges
+ * are given.
+ */
+public final class FacetCounter {
+
+    // Count into a map when hits are fewer than this fraction of the distinct values
+    private static final int SPARSE_RATIO = 16;
+
+    private FacetCounter() {
+    }
+
+    /**
+     * Facet counts by field, then by value or range bucket
+     */
+    public static Map<String, Map<String, Long>> count(FacetsCollector hits, SearchOptions options)
+            throws IOException {
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        Map<String, List<Double>> facetRanges = options.getFacetRanges() != null
+                ? options.getFacetRanges()
+                : Map.of();
+
+        for (String field : options.getFacetFields()) {
+            List<Double> edges = facetRanges.get(field);
+            if (edges != null && !edges.isEmpty()) {
+                facets.put(field, countRanges(hits, field, edges));
+            } else {
+                facets.put(field, countValues(hits, field, options.getMaxFacetValues()));
+            }
+        }
+        return facets;
+    }
+
+    private static Map<String, Long> countValues(FacetsCollector hits, String field, int maxValues)
+            throws IOException {
+        Map<String, Long> counts = new HashMap<>();
+        for (FacetsCollector.MatchingDocs matchingDocs : hits.getMatchingDocs()) {
+            LeafReader reader = matchingDocs.context().reader();
+            countKeywords(matchingDocs, DocValues.getSortedSet(reader, FilterCompiler.keywordField(field)), counts);
+            countNumbers(matchingDocs, DocValues.getSortedNumeric(reader, FilterCompiler.longField(field)),
+                    false, counts);
+            countNumbers(matchingDocs, DocValues.getSortedNumeric(reader, FilterCompiler.doubleField(field)),
+                    true, counts);
+        }
+
+        Map<String, Long> top = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxValues)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private static void countKeywords(FacetsCollector.MatchingDocs matchingDocs, SortedSetDocValues values,
+            Map<String, Long> counts) throws IOException {
+        DocIdSetIterator docs = matchingDocs.bits().iterator();
+        if (docs == null || values.getValueCount() == 0) {
+            return;
+        }
+
+        if (matchingDocs.totalHits() < values.getValueCount() / SPARSE_RATIO) {
+            countKeywordsSparse(docs, values, counts);
+            return;
+        }
+
+        // Count per segment ordinal and resolve only the ordinals that were hit
+        int[] ordCounts = new int[Math.toIntExact(values.getValueCount())];
+        for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+            if (values.advanceExact(doc)) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    ordCounts[(int) values.nextOrd()]++;
+                }
+            }
+        }
+
+        for (int ord = 0; ord < ordCounts.length; ord++) {
+            if (ordCounts[ord] > 0) {
+                counts.merge(values.lookupOrd(ord).utf8ToString(), (long) ordCounts[ord], Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Count ordinals into a map, so a selective query over a high-cardinality
+     * field does not allocate and scan an array covering every value
+     */
+    private static void countKeywordsSparse(DocIdSetIterator docs, SortedSetDocValues values,
+            Map<String, Long> counts) throws IOException {
+        Map<Long, Long> ordCounts = new HashMap<>();
+        for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+            if (values.advanceExact(doc)) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    ordCounts.merge(values.nextOrd(), 1L, Long::sum);
+                }
+            }
+        }
+
+        for (Map.Entry<Long, Long> entry : ordCounts.entrySet()) {
+            counts.merge(values.lookupOrd(entry.getKey()).utf8ToString(), entry.getValue(), Long::sum);
+        }
+    }
+
+    private static void countNumbers(FacetsCollector.MatchingDocs matchingDocs, SortedNumericDocValues values,
+            boolean decimal, Map<String, Long> counts) throws IOException {
+        DocIdSetIterator docs = matchingDocs.bits().iterator();
+        if (docs == null) {
+            return;
+        }
+
+        for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+            if (values.advanceExact(doc)) {
+                for (int i = 0; i < values.docValueCount(); i++) {
+                    long value = values.nextValue();
+                    String label = decimal
+                            ? String.valueOf(NumericUtils.sortableLongToDouble(value))
+                            : String.valueOf(value);
+                    counts.merge(label, 1L, Long::sum);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Long> countRanges(FacetsCollector hits, String field, List<Double> edges)
+            throws IOException {
+        double[] bounds = edges.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        long[] bucketCounts = new long[bounds.length];
+
+        for (FacetsCollector.MatchingDocs matchingDocs : hits.getMatchingDocs()) {
+            LeafReader reader = matchingDocs.context().reader();
+            SortedNumericDocValues longValues = DocValues.getSortedNumeric(reader, FilterCompiler.longField(field));
+            SortedNumericDocValues doubleValues = DocValues.getSortedNumeric(reader,
+                    FilterCompiler.doubleField(field));
+
+            // A multi-valued document counts once per bucket
+            int[] lastDoc = new int[bounds.length];
+            Arrays.fill(lastDoc, -1);
+
+            DocIdSetIterator docs = matchingDocs.bits().iterator();
+            if (docs == null) {
+                continue;
+            }
+            for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+                if (longValues.advanceExact(doc)) {
+                    for (int i = 0; i < longValues.docValueCount(); i++) {
+                        countInBucket(bounds, longValues.nextValue(), doc, lastDoc, bucketCounts);
+                    }
+                }
+                if (doubleValues.advanceExact(doc)) {
+                    for (int i = 0; i < doubleValues.docValueCount(); i++) {
+                        double value = NumericUtils.sortableLongToDouble(doubleValues.nextValue());
+                        countInBucket(bounds, value, doc, lastDoc, bucketCounts);
+                    }
+                }
+            }
+        }
+
+        // Buckets are [edge(i), edge(i+1)) plus an open-ended last bucket, in edge order
+        Map<String, Long> ranges = new LinkedHashMap<>();
+        for (int i = 0; i < bounds.length; i++) {
+            String label = i + 1 < bounds.length
+                    ? formatBound(bounds[i]) + "-" + formatBound(bounds[i + 1])
+                    : formatBound(bounds[i]) + "+";
+            ranges.put(label, bucketCounts[i]);
+        }
+        return ranges;
+    }
+
+    private static void countInBucket(double[] bounds, double value, int doc, int[] lastDoc, long[] bucketCounts) {
+        int bucket = Arrays.binarySearch(bounds, value);
+        if (bucket < 0) {
+            // Insertion point minus one is the bucket whose lower edge is below the value
+            bucket = -bucket - 2;
+        }
+        if (bucket >= 0 && lastDoc[bucket] != doc) {
+            lastDoc[bucket] = doc;
+            bucketCounts[bucket]++;
+        }
+    }
+
+    private static String formatBound(double bound) {
+        return bound == Math.rint(bound) && !Double.isInfinite(bound)
+                ? String.valueOf((long) bound)
+                : String.valueOf(bound);
+    }
+}
@@ -0,0 +1,80 @@
+package com.h12.seekly.engine;
+
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.UsageTrackingQueryCachingPolicy;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Query caching policy tuned for search filters.
+ * Lucene's default policy never caches term queries and waits for up to five
+ * uses before caching anything else, which leaves filters such as
+ * {@code active=true} or {@code category=Electronics} evaluated from postings on
+ * every request. Queries that only touch filter fields are cached once they
+ * were seen {@code minFrequency} times among recent queries; everything else is
+ * left to {@link UsageTrackingQueryCachingPolicy}.
+ */
+public class FilterCachingPolicy implements QueryCachingPolicy {
+
+    // Number of distinct recent filters whose use counts are tracked
+    private static final int HISTORY_SIZE = 256;
+
+    private final QueryCachingPolicy delegate = new UsageTrackingQueryCachingPolicy();
+    private final int minFrequency;
+    private final Map<Query, Integer> recentFilters = new LinkedHashMap<>(HISTORY_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Query, Integer> eldest) {
+            return size() > HISTORY_SIZE;
+        }
+    };
+
+    public FilterCachingPolicy(int minFrequency) {
+        this.minFrequency = minFrequency;
+    }
+
+    @Override
+    public void onUse(Query query) {
+        if (isFilter(query)) {
+            synchronized (recentFilters) {
+                recentFilters.merge(query, 1, Integer::sum);
+            }
+        } else {
+            delegate.onUse(query);
+        }
+    }
+
+    @Override
+    public boolean shouldCache(Query query) throws IOException {
+        if (isFilter(query)) {
+            synchronized (recentFilters) {
+                return recentFilters.getOrDefault(query, 0) >= minFrequency;
+            }
+        }
+        return delegate.shouldCache(query);
+    }
+
+    private static boolean isFilter(Query query) {
+        FilterFieldVisitor visitor = new FilterFieldVisitor();
+        query.visit(visitor);
+        return visitor.fields > 0 && visitor.onlyFilterFields;
+    }
+
+    /**
+     * Checks that every field a query reads is a filter field
+     */
+    private static final class FilterFieldVisitor extends QueryVisitor {
+        private int fields;
+        private boolean onlyFilterFields = true;
+
+        @Override
+        public boolean acceptField(String field) {
+            fields++;
+            onlyFilterFields &= FilterCompiler.isFilterField(field);
+            return false;
+        }
+    }
+}
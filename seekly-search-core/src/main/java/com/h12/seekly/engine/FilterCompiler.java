@@ -0,0 +1,326 @@
+package com.h12.seekly.engine;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KeywordField;
+import org.apache.lucene.document.LongField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.util.BytesRef;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the filterable fields of an entity and compiles a search's filter
+ * map into non-scoring {@link BooleanClause.Occur#FILTER} clauses.
+ * Strings, enums and booleans are indexed as keywords, integral numbers and
+ * dates as longs and decimals as doubles; every value gets both a point or
+ * term index and doc values, so Lucene can pick whichever is cheaper for the
+ * candidate set when a filter runs next to the main query.
+ * Filter values are interpreted as follows:
+ * <ul>
+ * <li>scalar: exact match</li>
+ * <li>collection: match any of the values</li>
+ * <li>map with {@code gt}, {@code gte}/{@code min}, {@code lt},
+ * {@code lte}/{@code max}: range</li>
+ * <li>{@code <field>_min} / {@code <field>_max} keys: inclusive range on
+ * {@code <field>}</li>
+ * </ul>
+ */
+public final class FilterCompiler {
+
+    /**
+     * Built-in field holding {@link com.h12.seekly.core.SearchableEntity#isActive()}
+     */
+    public static final String ACTIVE_FIELD = "active";
+
+    private static final String FIELD_PREFIX = "filter.";
+    private static final String LONG_SUFFIX = ".long";
+    private static final String DOUBLE_SUFFIX = ".double";
+    private static final String MIN_SUFFIX = "_min";
+    private static final String MAX_SUFFIX = "_max";
+
+    private FilterCompiler() {
+    }
+
+    /**
+     * Lucene field holding the keyword values of a filterable field
+     */
+    public static String keywordField(String name) {
+        return FIELD_PREFIX + name;
+    }
+
+    /**
+     * Lucene field holding the integral and date values of a filterable field
+     */
+    public static String longField(String name) {
+        return FIELD_PREFIX + name + LONG_SUFFIX;
+    }
+
+    /**
+     * Lucene field holding the decimal values of a filterable field
+     */
+    public static String doubleField(String name) {
+        return FIELD_PREFIX + name + DOUBLE_SUFFIX;
+    }
+
+    /**
+     * Whether the given Lucene field only serves filtering
+     */
+    public static boolean isFilterField(String field) {
+        return field.startsWith(FIELD_PREFIX) || ACTIVE_FIELD.equals(field);
+    }
+
+    /**
+     * Add the filterable fields of an entity to its document
+     */
+    public static void index(Document doc, Map<String, Object> filterableFields) {
+        for (Map.Entry<String, Object> field : filterableFields.entrySet()) {
+            if (field.getValue() instanceof Collection<?> values) {
+                for (Object value : values) {
+                    indexValue(doc, field.getKey(), value);
+                }
+            } else {
+                indexValue(doc, field.getKey(), field.getValue());
+            }
+        }
+    }
+
+    /**
+     * Restrict a query to the documents matching all filters; returns the query
+     * unchanged when there are none
+     */
+    public static Query apply(Query query, Map<String, Object> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return query;
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        builder.add(query, BooleanClause.Occur.MUST);
+        for (Query filter : compile(filters)) {
+            builder.add(filter, BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compile a filter map into one query per filtered field
+     */
+    public static List<Query> compile(Map<String, Object> filters) {
+        Map<String, Object> exact = new LinkedHashMap<>();
+        Map<String, Range> ranges = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Object> filter : filters.entrySet()) {
+            String key = filter.getKey();
+            Object value = filter.getValue();
+            if (value == null) {
+                continue;
+            }
+
+            if (value instanceof Map<?, ?> bounds) {
+                ranges.computeIfAbsent(key, k -> new Range()).setBounds(key, bounds);
+            } else if (key.endsWith(MIN_SUFFIX) && isNumeric(value)) {
+                String name = key.substring(0, key.length() - MIN_SUFFIX.length());
+                ranges.computeIfAbsent(name, k -> new Range()).lower(value, true);
+            } else if (key.endsWith(MAX_SUFFIX) && isNumeric(value)) {
+                String name = key.substring(0, key.length() - MAX_SUFFIX.length());
+                ranges.computeIfAbsent(name, k -> new Range()).upper(value, true);
+            } else {
+                exact.put(key, value);
+            }
+        }
+
+        List<Query> queries = new ArrayList<>();
+        exact.forEach((name, value) -> queries.add(exactQuery(name, value)));
+        ranges.forEach((name, range) -> queries.add(range.toQuery(name)));
+        return queries;
+    }
+
+    private static void indexValue(Document doc, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+
+        if (isIntegral(value) || isDate(value)) {
+            doc.add(new LongField(longField(name), toLong(value), Field.Store.NO));
+        } else if (value instanceof Number number) {
+            doc.add(new DoubleField(doubleField(name), number.doubleValue(), Field.Store.NO));
+        } else {
+            doc.add(new KeywordField(keywordField(name), toKeyword(value), Field.Store.NO));
+        }
+    }
+
+    private static Query exactQuery(String name, Object value) {
+        if (value instanceof Collection<?> values) {
+            return anyOfQuery(name, values);
+        }
+
+        if (ACTIVE_FIELD.equals(name)) {
+            return new TermQuery(new Term(ACTIVE_FIELD, toKeyword(value)));
+        }
+
+        if (isNumeric(value)) {
+            // The same field may hold integral values in some documents and decimals in others
+            double number = toDouble(value);
+            BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                    .add(DoubleField.newExactQuery(doubleField(name), number), BooleanClause.Occur.SHOULD);
+            if (number == Math.rint(number)) {
+                builder.add(LongField.newExactQuery(longField(name), (long) number), BooleanClause.Occur.SHOULD);
+            }
+            return builder.build();
+        }
+
+        return KeywordField.newExactQuery(keywordField(name), toKeyword(value));
+    }
+
+    private static Query anyOfQuery(String name, Collection<?> values) {
+        List<BytesRef> keywords = new ArrayList<>();
+        List<Double> numbers = new ArrayList<>();
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+            if (isNumeric(value)) {
+                numbers.add(toDouble(value));
+            } else {
+                keywords.add(new BytesRef(toKeyword(value)));
+            }
+        }
+
+        if (ACTIVE_FIELD.equals(name)) {
+            return new TermInSetQuery(ACTIVE_FIELD, keywords);
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        if (!keywords.isEmpty()) {
+            builder.add(KeywordField.newSetQuery(keywordField(name), keywords), BooleanClause.Occur.SHOULD);
+        }
+        if (!numbers.isEmpty()) {
+            double[] doubles = numbers.stream().mapToDouble(Double::doubleValue).toArray();
+            long[] longs = numbers.stream()
+                    .filter(number -> number == Math.rint(number))
+                    .mapToLong(Double::longValue)
+                    .toArray();
+            builder.add(DoubleField.newSetQuery(doubleField(name), doubles), BooleanClause.Occur.SHOULD);
+            if (longs.length > 0) {
+                builder.add(LongField.newSetQuery(longField(name), longs), BooleanClause.Occur.SHOULD);
+            }
+        }
+        return builder.build();
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short
+                || value instanceof Byte || value instanceof BigInteger;
+    }
+
+    private static boolean isDate(Object value) {
+        return value instanceof LocalDateTime || value instanceof LocalDate
+                || value instanceof Instant || value instanceof Date;
+    }
+
+    private static boolean isNumeric(Object value) {
+        return value instanceof Number || isDate(value);
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        if (value instanceof LocalDate date) {
+            return date.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        if (value instanceof Instant instant) {
+            return instant.toEpochMilli();
+        }
+        if (value instanceof Date date) {
+            return date.getTime();
+        }
+        return ((Number) value).longValue();
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.doubleValue();
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        return toLong(value);
+    }
+
+    private static String toKeyword(Object value) {
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Bounds collected for one field, possibly from several filter keys
+     */
+    private static final class Range {
+        private double lower = Double.NEGATIVE_INFINITY;
+        private double upper = Double.POSITIVE_INFINITY;
+
+        void setBounds(String name, Map<?, ?> bounds) {
+            for (Map.Entry<?, ?> bound : bounds.entrySet()) {
+                Object value = bound.getValue();
+                if (value == null) {
+                    continue;
+                }
+                if (!isNumeric(value)) {
+                    throw new IllegalArgumentException("Range bound " + bound.getKey() + " of filter "
+                            + name + " must be a number or date, got: " + value);
+                }
+                switch (String.valueOf(bound.getKey())) {
+                    case "gt" -> lower(value, false);
+                    case "gte", "min" -> lower(value, true);
+                    case "lt" -> upper(value, false);
+                    case "lte", "max" -> upper(value, true);
+                    default -> throw new IllegalArgumentException("Unknown range bound " + bound.getKey()
+                            + " in filter " + name + ", expected gt, gte, min, lt, lte or max");
+                }
+            }
+        }
+
+        void lower(Object value, boolean inclusive) {
+            double bound = toDouble(value);
+            lower = Math.max(lower, inclusive ? bound : Math.nextUp(bound));
+        }
+
+        void upper(Object value, boolean inclusive) {
+            double bound = toDouble(value);
+            upper = Math.min(upper, inclusive ? bound : Math.nextDown(bound));
+        }
+
+        Query toQuery(String name) {
+            BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                    .add(DoubleField.newRangeQuery(doubleField(name), lower, upper), BooleanClause.Occur.SHOULD);
+
+            // Integral values match if any whole number lies within the bounds
+            long longLower = lower == Double.NEGATIVE_INFINITY ? Long.MIN_VALUE : (long) Math.ceil(lower);
+            long longUpper = upper == Double.POSITIVE_INFINITY ? Long.MAX_VALUE : (long) Math.floor(upper);
+            if (longLower <= longUpper) {
+                builder.add(LongField.newRangeQuery(longField(name), longLower, longUpper), BooleanClause.Occur.SHOULD);
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,718 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.config.PostgresSearchConfig;
+import com.h12.seekly.core.QueryCacheStats;
+import com.h12.seekly.core.SearchOptions;
+import com.h12.seekly.core.WriteOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.FieldInfos;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LRUQueryCache;
+import org.apache.lucene.search.QueryCachingPolicy;
+import org.apache.lucene.search.ReferenceManager;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherLifetimeManager;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the Lucene directory, the single {@link IndexWriter} and the
+ * near-real-time {@link SearcherManager} used by a search engine for its whole
+ * lifetime.
+ * IndexWriter is thread-safe, so request threads add, update and delete
+ * documents concurrently instead of opening a writer (and taking the write
+ * lock) per call. Searches acquire a shared, warm searcher that a background
+ * thread reopens from the writer, instead of opening a reader per query.
+ * Commits are grouped by a {@link CommitScheduler} rather than issued per write.
+ * Searchers share a bounded {@link LRUQueryCache} so repeated filters are
+ * answered from cached per-segment bitsets.
+ * Searchers are kept in a {@link SearcherLifetimeManager} under their reader
+ * version, so the next page of a cursor is collected from the snapshot that
+ * issued it; they are dropped once a newer searcher has replaced them for
+ * longer than the cursor keep-alive.
+ * Indexes are versioned blue/green: a replacement is built in a new
+ * {@code <luceneIndexPath>.v<N>} directory while the current version keeps
+ * serving, then switched to by rewriting the {@code <luceneIndexPath>.current}
+ * alias file, so the switch survives restarts. Searches move from the old
+ * searcher to the new one without ever seeing a partially built index, and the
+ * previous version is kept on disk for {@link #rollback()}.
+ */
+@Slf4j
+public class LuceneIndexManager implements Closeable {
+
+    private final PostgresSearchConfig config;
+    private final Analyzer analyzer;
+    private final Path basePath;
+    private final Path aliasFile;
+    private final LRUQueryCache queryCache;
+    private final QueryCachingPolicy queryCachingPolicy;
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService searchExecutor;
+    private final int sliceMaxDocs;
+    private final int sliceMaxSegments;
+    private final String entityType;
+    private final double cursorKeepAliveSec;
+
+    // Replaced as a whole when the index is swapped
+    private volatile OpenIndex index;
+    // Swapped-out indexes whose searchers are still in use; guarded by this
+    private final List<OpenIndex> retired = new ArrayList<>();
+
+    public LuceneIndexManager(PostgresSearchConfig config, Analyzer analyzer) throws IOException {
+        this.config = config;
+        this.analyzer = analyzer;
+        this.entityType = config.getEntityType();
+        this.basePath = Paths.get(config.getLuceneIndexPath()).toAbsolutePath().normalize();
+        this.aliasFile = basePath.resolveSibling(basePath.getFileName() + ".current");
+        this.queryCache = createQueryCache(config);
+        this.queryCachingPolicy = new FilterCachingPolicy(config.getQueryCacheMinFilterFrequency());
+        this.searchExecutor = createSearchExecutor(config);
+        this.sliceMaxDocs = config.getSearchSliceMaxDocs();
+        this.sliceMaxSegments = config.getSearchSliceMaxSegments();
+        this.cursorKeepAliveSec = config.getCursorKeepAliveMs() / 1000.0;
+        this.index = openIndex(resolveIndexPath());
+    }
+
+    /**
+     * Open the writer, searcher manager, reopen thread and commit policy of the
+     * index at the given path, creating the index if it doesn't exist
+     */
+    private OpenIndex openIndex(Path path) throws IOException {
+        Directory directory = FSDirectory.open(path);
+
+        IndexWriterConfig writerConfig = new IndexWriterConfig(analyzer);
+        writerConfig.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        IndexWriter indexWriter = new IndexWriter(directory, writerConfig);
+
+        // Create index if it doesn't exist
+        if (!DirectoryReader.indexExists(directory)) {
+            indexWriter.commit();
+            log.info("Created new index for entity type: {}", entityType);
+        }
+
+        CommitScheduler commitScheduler = new CommitScheduler(indexWriter, entityType,
+                config.getCommitIntervalMs(), config.getCommitMaxDocs());
+        SearcherManager searcherManager = new SearcherManager(indexWriter, newSearcherFactory());
+        SearcherLifetimeManager cursorSearchers = new SearcherLifetimeManager();
+
+        // Registered before the reopen thread's own listener, so refresh listeners have
+        // run by the time callers waiting on a generation are released
+        searcherManager.addListener(new ReferenceManager.RefreshListener() {
+            @Override
+            public void beforeRefresh() {
+            }
+
+            @Override
+            public void afterRefresh(boolean didRefresh) throws IOException {
+                if (didRefresh) {
+                    refreshListeners.forEach(Runnable::run);
+                    // Kept searchers age from the moment a newer one is recorded, i.e. from this refresh
+                    IndexSearcher searcher = searcherManager.acquire();
+                    try {
+                        cursorSearchers.record(searcher);
+                    } finally {
+                        searcherManager.release(searcher);
+                    }
+                }
+                // Runs at least every max staleness, so expired cursor searchers go without new searches
+                cursorSearchers.prune(new SearcherLifetimeManager.PruneByAge(cursorKeepAliveSec));
+            }
+        });
+
+        // Reopen at least every maxStaleness; callers waiting on a generation get a
+        // reopen after at most refreshInterval
+        ControlledRealTimeReopenThread<IndexSearcher> reopenThread = new ControlledRealTimeReopenThread<>(
+                indexWriter,
+                searcherManager,
+                config.getSearcherMaxStalenessMs() / 1000.0,
+                config.getSearcherRefreshIntervalMs() / 1000.0);
+        reopenThread.setName("seekly-searcher-refresh-" + entityType);
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+
+        return new OpenIndex(path, directory, indexWriter, searcherManager, cursorSearchers, reopenThread,
+                commitScheduler);
+    }
+
+    /**
+     * Directory named by the alias file, or the configured path when no index was swapped in yet
+     */
+    private Path resolveIndexPath() throws IOException {
+        if (!Files.exists(aliasFile)) {
+            return basePath;
+        }
+        String name = Files.readString(aliasFile, StandardCharsets.UTF_8).trim();
+        return basePath.resolveSibling(name);
+    }
+
+    private static LRUQueryCache createQueryCache(PostgresSearchConfig config) {
+        if (config.getQueryCacheMaxQueries() <= 0) {
+            return null;
+        }
+
+        // Tiny NRT segments are cheap to evaluate and short-lived, so they are not cached;
+        // filters over 10x costlier than the leading clause are skipped as in Lucene's default
+        int minSegmentDocs = config.getQueryCacheMinSegmentDocs();
+        return new LRUQueryCache(
+                config.getQueryCacheMaxQueries(),
+                config.getQueryCacheMaxRamBytes(),
+                context -> context.reader().maxDoc() >= minSegmentDocs,
+                10f);
+    }
+
+    private static ExecutorService createSearchExecutor(PostgresSearchConfig config) {
+        if (config.getSearchThreads() <= 0) {
+            return null;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(config.getSearchThreads(), runnable -> {
+            Thread thread = new Thread(runnable,
+                    "seekly-search-" + config.getEntityType() + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private SearcherFactory newSearcherFactory() {
+        return new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+                IndexSearcher searcher = searchExecutor == null
+                        ? new IndexSearcher(reader)
+                        : new IndexSearcher(reader, searchExecutor) {
+                            // Group segments into slices searched in parallel, one task per slice
+                            @Override
+                            protected LeafSlice[] slices(List<LeafReaderContext> leaves) {
+                                return slices(leaves, sliceMaxDocs, sliceMaxSegments, false);
+                            }
+                        };
+                // A null cache disables caching for this engine
+                searcher.setQueryCache(queryCache);
+                searcher.setQueryCachingPolicy(queryCachingPolicy);
+                return searcher;
+            }
+        };
+    }
+
+    /**
+     * Shared writer for all mutating operations
+     */
+    public IndexWriter getWriter() {
+        return index.writer;
+    }
+
+    /**
+     * Directory the index lives in
+     */
+    public Directory getDirectory() {
+        return index.directory;
+    }
+
+    /**
+     * Path of the directory the index lives in
+     */
+    public Path getIndexPath() {
+        return index.path;
+    }
+
+    /**
+     * Create the directory of the next index version for building a replacement index
+     */
+    public synchronized Path newIndexPath() throws IOException {
+        long latest = versions().stream().mapToLong(this::version).max().orElse(0);
+        Path path = basePath.resolveSibling(basePath.getFileName() + ".v" + (latest + 1));
+        Files.createDirectories(path);
+        return path;
+    }
+
+    /**
+     * Version directory the index would roll back to, if any
+     */
+    public synchronized Path getPreviousIndexPath() throws IOException {
+        long current = version(index.path);
+        Path previous = null;
+        for (Path path : versions()) {
+            long version = version(path);
+            if (version < current && (previous == null || version > version(previous)) && !isPendingDelete(path)
+                    && isIndex(path)) {
+                previous = path;
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * Make all pending changes durable
+     */
+    public void commit() throws IOException {
+        index.commitScheduler.commit();
+    }
+
+    /**
+     * Switch to the committed index version at the given path.
+     * The alias is updated before the new searcher is published and searches in
+     * flight finish on the old searcher. The old version is kept for rollback;
+     * versions older than it are deleted once their last searcher is released.
+     * Writes to the old writer after this returns fail, so callers must stop
+     * writing for the duration of the swap.
+     */
+    public synchronized void swap(Path path) throws IOException {
+        Path previous = switchTo(path);
+        for (Path version : versions()) {
+            if (!version.equals(path) && !version.equals(previous)) {
+                deleteWhenReleased(version);
+            }
+        }
+    }
+
+    /**
+     * Switch back to the previous index version and delete the current one once
+     * its last searcher is released. Changes made since the previous version
+     * was replaced are not in it.
+     *
+     * @return path of the version switched back to
+     */
+    public synchronized Path rollback() throws IOException {
+        Path previous = getPreviousIndexPath();
+        if (previous == null) {
+            throw new IllegalStateException("No previous index version to roll back to for entity type: "
+                    + entityType);
+        }
+        deleteWhenReleased(switchTo(previous));
+        return previous;
+    }
+
+    /**
+     * Open the index at the path, point the alias and the searchers at it and
+     * retire the current one
+     *
+     * @return path of the index switched away from
+     */
+    private Path switchTo(Path path) throws IOException {
+        OpenIndex previous = index;
+        OpenIndex next = openIndex(path);
+
+        try {
+            writeAlias(path);
+        } catch (IOException e) {
+            next.release();
+            throw e;
+        }
+        index = next;
+        refreshListeners.forEach(Runnable::run);
+        log.info("Switched index for entity type: {} from {} to {}", entityType, previous.path, path);
+
+        // The writer goes now, so the version can be reopened; readers stay until searches finish
+        retired.add(previous);
+        previous.retire();
+        previous.release();
+        return previous.path;
+    }
+
+    /**
+     * Delete an index version now, or when its last searcher is released if it
+     * is still in use
+     */
+    private void deleteWhenReleased(Path path) {
+        boolean inUse = false;
+        for (OpenIndex open : retired) {
+            if (open.path.equals(path)) {
+                open.deleteOnRelease = true;
+                inUse = true;
+            }
+        }
+        if (!inUse) {
+            deleteIndex(path);
+        }
+    }
+
+    private boolean isPendingDelete(Path path) {
+        return retired.stream().anyMatch(open -> open.deleteOnRelease && open.path.equals(path));
+    }
+
+    /**
+     * Close a retired index whose last searcher was released
+     */
+    private synchronized void closeRetired(OpenIndex open) {
+        retired.remove(open);
+        try {
+            open.close();
+        } catch (IOException e) {
+            log.warn("Failed to close retired index at: {}", open.path, e);
+        }
+        if (open.deleteOnRelease) {
+            deleteIndex(open.path);
+        }
+    }
+
+    /**
+     * The configured path (version 0) and every {@code .v<N>} sibling
+     */
+    private List<Path> versions() throws IOException {
+        List<Path> versions = new ArrayList<>();
+        if (Files.isDirectory(basePath)) {
+            versions.add(basePath);
+        }
+        String prefix = basePath.getFileName() + ".v";
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(basePath.getParent(), prefix + "*")) {
+            for (Path sibling : siblings) {
+                String suffix = sibling.getFileName().toString().substring(prefix.length());
+                if (Files.isDirectory(sibling) && !suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    versions.add(sibling);
+                }
+            }
+        }
+        return versions;
+    }
+
+    private static boolean isIndex(Path path) throws IOException {
+        try (Directory directory = FSDirectory.open(path)) {
+            return DirectoryReader.indexExists(directory);
+        }
+    }
+
+    private long version(Path path) {
+        String name = path.getFileName().toString();
+        String prefix = basePath.getFileName() + ".v";
+        return name.startsWith(prefix) ? Long.parseLong(name.substring(prefix.length())) : 0;
+    }
+
+    private void deleteIndex(Path path) {
+        try {
+            IOUtils.rm(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete index version at: {}", path, e);
+        }
+    }
+
+    private void writeAlias(Path path) throws IOException {
+        Path tempFile = aliasFile.resolveSibling(aliasFile.getFileName() + ".tmp");
+        Files.writeString(tempFile, path.getFileName().toString(), StandardCharsets.UTF_8);
+        Files.move(tempFile, aliasFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Apply the commit policy and the caller's visibility/durability options
+     * after a write that produced the given sequence number
+     */
+    public void afterWrite(long generation, long changes, WriteOptions options) throws IOException {
+        OpenIndex current = index;
+        current.commitScheduler.onChanges(changes);
+        if (options.isWaitForCommit()) {
+            current.commitScheduler.commit();
+        }
+        if (options.isWaitForVisibility()) {
+            waitForGeneration(generation);
+        }
+    }
+
+    /**
+     * Time of the last successful commit
+     */
+    public LocalDateTime getLastCommit() {
+        return index.commitScheduler.getLastCommit();
+    }
+
+    /**
+     * Writer sequence number of the last change made durable in the current
+     * index, or -1 before its first commit
+     */
+    public long getCommittedGeneration() {
+        return index.commitScheduler.getCommittedGeneration();
+    }
+
+    /**
+     * Number of changes not yet committed
+     */
+    public long getPendingChanges() {
+        return index.commitScheduler.getPendingChanges();
+    }
+
+    /**
+     * Acquire the current searcher; must be paired with
+     * {@link #releaseSearcher(IndexSearcher)}
+     */
+    public IndexSearcher acquireSearcher() throws IOException {
+        while (true) {
+            OpenIndex current = index;
+            // Fails only when a swap retired this index in between; the next read sees its successor
+            if (current.tryIncRef()) {
+                try {
+                    return current.searcherManager.acquire();
+                } catch (IOException | RuntimeException e) {
+                    current.release();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Acquire the searcher for a search: the one a paging cursor was issued
+     * against, or the current one for a first page; must be paired with
+     * {@link #releaseSearcher(IndexSearcher)}
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or its searcher
+     *                                  is no longer kept
+     */
+    public IndexSearcher acquireSearcher(SearchOptions options) throws IOException {
+        if (options.getCursor() == null) {
+            return acquireSearcher();
+        }
+
+        long version = SearchPage.cursorVersion(options.getCursor());
+        while (true) {
+            OpenIndex current = index;
+            if (current.tryIncRef()) {
+                IndexSearcher searcher = current.cursorSearchers.acquire(version);
+                if (searcher == null) {
+                    current.release();
+                    throw new IllegalArgumentException("Search cursor has expired; restart from the first page");
+                }
+                return searcher;
+            }
+        }
+    }
+
+    /**
+     * Keep the searcher so later pages of a cursor it issued see the same
+     * snapshot. Searchers of a swapped-out index are not kept, so their cursors
+     * expire.
+     */
+    public void keepSearcher(IndexSearcher searcher) throws IOException {
+        OpenIndex current = index;
+        if (((DirectoryReader) searcher.getIndexReader()).directory() == current.directory) {
+            try {
+                current.cursorSearchers.record(searcher);
+            } catch (AlreadyClosedException e) {
+                // Swapped out meanwhile
+            }
+        }
+    }
+
+    /**
+     * Release a searcher obtained from {@link #acquireSearcher()}. A searcher of a
+     * swapped-out index is released to that index, which is closed with the
+     * last one.
+     */
+    public void releaseSearcher(IndexSearcher searcher) throws IOException {
+        OpenIndex owner = ownerOf(searcher);
+        try {
+            owner.searcherManager.release(searcher);
+        } finally {
+            owner.release();
+        }
+    }
+
+    private OpenIndex ownerOf(IndexSearcher searcher) {
+        // Searchers come from the writer, so their reader belongs to the index's directory
+        Directory directory = ((DirectoryReader) searcher.getIndexReader()).directory();
+        OpenIndex current = index;
+        if (current.directory == directory) {
+            return current;
+        }
+        synchronized (this) {
+            for (OpenIndex open : retired) {
+                if (open.directory == directory) {
+                    return open;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Searcher does not belong to this index: " + entityType);
+    }
+
+    /**
+     * Block until the searcher reflects the write with the given sequence number
+     */
+    public void waitForGeneration(long generation) {
+        try {
+            index.reopenThread.waitForGeneration(generation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for searcher refresh", e);
+        }
+    }
+
+    /**
+     * Reopen the searcher now so all changes made so far are visible
+     */
+    public void refresh() throws IOException {
+        index.searcherManager.maybeRefreshBlocking();
+    }
+
+    /**
+     * Run the listener after every searcher reopen that picked up changes
+     */
+    public void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * Names of the tokenized, length-normalized fields present in the index
+     */
+    public Set<String> getTextFields() throws IOException {
+        IndexSearcher searcher = acquireSearcher();
+        try {
+            Set<String> fields = new HashSet<>();
+            for (FieldInfo fieldInfo : FieldInfos.getMergedFieldInfos(searcher.getIndexReader())) {
+                if (fieldInfo.getIndexOptions().compareTo(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS) >= 0
+                        && fieldInfo.hasNorms()) {
+                    fields.add(fieldInfo.name);
+                }
+            }
+            return fields;
+        } finally {
+            releaseSearcher(searcher);
+        }
+    }
+
+    /**
+     * Hit, miss and eviction statistics of the filter cache
+     */
+    public QueryCacheStats getQueryCacheStats() {
+        if (queryCache == null) {
+            return QueryCacheStats.builder().enabled(false).build();
+        }
+
+        long lookups = queryCache.getTotalCount();
+        return QueryCacheStats.builder()
+                .enabled(true)
+                .hitCount(queryCache.getHitCount())
+                .missCount(queryCache.getMissCount())
+                .evictionCount(queryCache.getEvictionCount())
+                .cacheSize(queryCache.getCacheSize())
+                .cacheCount(queryCache.getCacheCount())
+                .ramBytesUsed(queryCache.ramBytesUsed())
+                .hitRate(lookups > 0 ? (double) queryCache.getHitCount() / lookups : 0)
+                .build();
+    }
+
+    /**
+     * Whether the writer is still open
+     */
+    public boolean isOpen() {
+        return index.writer.isOpen();
+    }
+
+    /**
+     * Commit pending changes and release the searchers, writer and directory
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            // Searches still running on retired indexes are cut off
+            for (OpenIndex open : List.copyOf(retired)) {
+                closeRetired(open);
+            }
+            index.close();
+        } finally {
+            if (searchExecutor != null) {
+                searchExecutor.shutdown();
+            }
+        }
+        log.info("Closed index for entity type: {}", entityType);
+    }
+
+    /**
+     * Directory, writer and searchers of one physical index.
+     * The manager holds one reference while the index is current and every
+     * acquired searcher holds another, so a swapped-out index is closed only
+     * after the searches running on it finish.
+     */
+    private final class OpenIndex {
+        private final Path path;
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+        private final SearcherLifetimeManager cursorSearchers;
+        private final ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+        private final CommitScheduler commitScheduler;
+        private final AtomicInteger refCount = new AtomicInteger(1);
+        // Guarded by the manager
+        private boolean deleteOnRelease;
+
+        OpenIndex(Path path, Directory directory, IndexWriter writer, SearcherManager searcherManager,
+                SearcherLifetimeManager cursorSearchers, ControlledRealTimeReopenThread<IndexSearcher> reopenThread,
+                CommitScheduler commitScheduler) {
+            this.path = path;
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = searcherManager;
+            this.cursorSearchers = cursorSearchers;
+            this.reopenThread = reopenThread;
+            this.commitScheduler = commitScheduler;
+        }
+
+        boolean tryIncRef() {
+            while (true) {
+                int count = refCount.get();
+                if (count <= 0) {
+                    return false;
+                }
+                if (refCount.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            if (refCount.decrementAndGet() == 0) {
+                closeRetired(this);
+            }
+        }
+
+        /**
+         * Stop refreshing, drop the searchers kept for cursors, and commit and
+         * close the writer; readers already handed out keep working
+         */
+        void retire() throws IOException {
+            reopenThread.close();
+            cursorSearchers.close();
+            commitScheduler.close();
+            if (writer.isOpen()) {
+                writer.commit();
+                writer.close();
+            }
+        }
+
+        void close() throws IOException {
+            try {
+                retire();
+                searcherManager.close();
+            } finally {
+                directory.close();
+            }
+        }
+    }
+}
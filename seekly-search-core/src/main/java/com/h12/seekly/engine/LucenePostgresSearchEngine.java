@@ -1,8 +1,12 @@
 package com.h12.seekly.engine;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.h12.seekly.codec.EntityCodec;
+import com.h12.seekly.codec.JacksonEntityCodec;
+import com.h12.seekly.config.PostgresSearchConfig;
 import com.h12.seekly.core.*;
+import com.h12.seekly.enums.BulkLoadMode;
+import com.h12.seekly.enums.HydrationMode;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import lombok.extern.slf4j.Slf4j;
@@ -13,16 +17,29 @@ import org.apache.lucene.index.*;
 import org.apache.lucene.search.*;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
 import javax.sql.DataSource;
 import java.io.IOException;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * PostgreSQL-based implementation of the Seekly search engine.
@@ -33,14 +50,50 @@ import java.util.stream.Collectors;
 @Slf4j
 public class LucenePostgresSearchEngine<T extends SearchableEntity> implements SearchEngine<T> {
 
-    private final Directory luceneDirectory;
+    // Columns written by bulk loads, in COPY order
+    private static final String BULK_COLUMNS = "id, entity_type, searchable_content, searchable_fields, "
+            + "relevance_score, created_at, updated_at, active, entity_data, entity_data_bin";
+
+    // Characters of CSV buffered before they are sent to the COPY stream
+    private static final int COPY_CHUNK_CHARS = 64 * 1024;
+
+    // Rows fetched per round-trip by the server-side cursors of a rebuild
+    private static final int REINDEX_FETCH_SIZE = 1000;
+
+    // Large indexing buffer for rebuilds, which write few, large segments
+    private static final double REINDEX_RAM_BUFFER_MB = 256;
+
+    private final LuceneIndexManager indexManager;
     private final Analyzer analyzer;
+    private final QueryCompiler queryCompiler;
+    private final ResultCache<T> resultCache;
+    private final AsyncExecutor asyncExecutor;
+    private final BulkIngestPipeline<T, PreparedEntity<T>> ingestPipeline;
+    private final OutboxApplier outboxApplier;
     private final DataSource dataSource;
     private final ObjectMapper objectMapper;
+    private final JacksonEntityCodec<T> jsonCodec;
+    private final EntityCodec<T> binaryCodec;
+    private final HydrationMode hydrationMode;
+    private final BulkLoadMode bulkLoadMode;
+    private final StoredFieldsHydrator<T> storedFieldsHydrator;
     private final String entityType;
+    private final int maxResultWindow;
     private final String tableName;
+    private final String outboxTable;
+    private final int reindexThreads;
+
+    // Lucene writes hold the read lock; swapping in a rebuilt index takes the write lock
+    private final ReentrantReadWriteLock indexSwapLock = new ReentrantReadWriteLock(true);
+    // Serializes rebuilds and clears
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+    // IDs written while a rebuild scans PostgreSQL, or null when no rebuild runs
+    private volatile Set<String> rebuildChanges;
     private final MetricsTracker metricsTracker;
 
+    // Stored fields needed to hydrate a hit from PostgreSQL
+    private static final Set<String> ID_FIELD = Set.of("id");
+
     // Performance tracking
     private final AtomicLong totalSearches = new AtomicLong(0);
     private final AtomicLong successfulSearches = new AtomicLong(0);
@@ -60,24 +113,62 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
     private LocalDateTime lastOptimization = LocalDateTime.now();
     private LocalDateTime startTime = LocalDateTime.now();
 
-    public LucenePostgresSearchEngine(String luceneIndexPath, String entityType,
-            String dbUrl, String dbUsername, String dbPassword) throws IOException {
-        this.luceneDirectory = FSDirectory.open(Paths.get(luceneIndexPath));
+    /**
+     * @throws IllegalArgumentException if the configuration has no entity class
+     */
+    public LucenePostgresSearchEngine(PostgresSearchConfig config) throws IOException {
+        Class<T> entityClass = resolveEntityClass(config);
         this.analyzer = new StandardAnalyzer();
-        this.entityType = entityType;
+        this.queryCompiler = new QueryCompiler(analyzer, config.isCombinedFieldScoring(),
+                config.getSearchFieldWeights(), config.getQueryPlanCacheSize());
+        this.resultCache = new ResultCache<>(config.getResultCacheMaxEntries(), config.getResultCacheMaxRamBytes(),
+                config.getResultCacheMaxResults());
+        this.asyncExecutor = new AsyncExecutor(config.getEntityType(), config.getAsyncMaxConcurrency(),
+                config.getAsyncTimeoutMs());
+        this.entityType = config.getEntityType();
         this.tableName = "seekly_" + entityType.toLowerCase() + "_documents";
+        this.outboxTable = config.isOutboxEnabled() ? "seekly_" + entityType.toLowerCase() + "_outbox" : null;
+        this.reindexThreads = config.getReindexThreads() > 0
+                ? config.getReindexThreads()
+                : Runtime.getRuntime().availableProcessors();
         this.objectMapper = new ObjectMapper();
+
+        // Typed codecs built once and reused for every store and hydration
+        this.jsonCodec = JacksonEntityCodec.json(entityClass);
+        this.binaryCodec = resolveBinaryCodec(config, entityClass);
+        this.hydrationMode = config.getHydrationMode();
+        this.bulkLoadMode = config.getBulkLoadMode();
+        this.storedFieldsHydrator = new StoredFieldsHydrator<>(entityClass, config.isStoreEntitySource());
         this.metricsTracker = new MetricsTracker();
 
         // Initialize PostgreSQL connection pool
-        this.dataSource = createDataSource(dbUrl, dbUsername, dbPassword);
+        this.dataSource = createDataSource(config);
 
         // Initialize database schema
         initializeDatabase();
 
-        // Create Lucene index if it doesn't exist
-        if (!DirectoryReader.indexExists(luceneDirectory)) {
-            createLuceneIndex();
+        // Open the shared Lucene writer and searcher, creating the index if it doesn't exist
+        this.maxResultWindow = config.getMaxResultWindow();
+        this.indexManager = new LuceneIndexManager(config, analyzer);
+        queryCompiler.addSearchableFields(indexManager.getTextFields());
+        indexManager.addRefreshListener(resultCache::invalidate);
+
+        // With the outbox, Lucene only follows committed PostgreSQL changes through the applier
+        if (config.isOutboxEnabled()) {
+            this.outboxApplier = new OutboxApplier(dataSource, indexManager, rs -> createDocument(decodeEntity(rs)),
+                    indexSwapLock.readLock(), outboxTable, tableName, entityType, config.getOutboxBatchSize(),
+                    config.getOutboxPollIntervalMs());
+            this.ingestPipeline = new BulkIngestPipeline<>(entityType, config.getIngestThreads(),
+                    config.getIngestBatchSize(), config.getIngestMaxPendingBatches(), T::getId, this::prepareEntity,
+                    this::batchStoreInPostgres, null, indexSwapLock.readLock());
+        } else {
+            this.outboxApplier = null;
+            this.ingestPipeline = new BulkIngestPipeline<>(entityType, config.getIngestThreads(),
+                    config.getIngestBatchSize(), config.getIngestMaxPendingBatches(), T::getId, this::prepareEntity,
+                    this::batchIndexInLucene, batch -> {
+                        batchStoreInPostgres(batch);
+                        return null;
+                    }, indexSwapLock.readLock());
         }
 
         log.info("LucenePostgresSearchEngine initialized for entity type: {} with table: {}", entityType, tableName);
@@ -85,69 +176,170 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
 
     @Override
     public void index(T entity) {
+        index(entity, WriteOptions.builder().build());
+    }
+
+    @Override
+    public void index(T entity, WriteOptions options) {
+        indexSwapLock.readLock().lock();
         try {
             // Store in PostgreSQL
-            storeInPostgres(entity);
+            long sequence = storeInPostgres(entity);
 
             // Index in Lucene
-            indexInLucene(entity);
+            if (outboxApplier != null) {
+                outboxApplier.afterWrite(sequence, options);
+            } else {
+                indexInLucene(entity, options);
+            }
 
             indexedDocuments.incrementAndGet();
             log.debug("Indexed entity: {} with ID: {}", entity.getEntityType(), entity.getId());
         } catch (Exception e) {
             log.error("Failed to index entity: {}", entity.getId(), e);
             throw new RuntimeException("Failed to index entity", e);
+        } finally {
+            indexSwapLock.readLock().unlock();
         }
     }
 
     @Override
     public void indexBatch(List<T> entities) {
-        try {
-            // Batch store in PostgreSQL
-            batchStoreInPostgres(entities);
+        indexBatch(entities, WriteOptions.builder().build());
+    }
+
+    @Override
+    public void indexBatch(List<T> entities, WriteOptions options) {
+        indexAll(entities.iterator(), options);
+    }
 
-            // Batch index in Lucene
-            batchIndexInLucene(entities);
+    @Override
+    public long indexAll(Iterator<T> entities, WriteOptions options) {
+        try {
+            // Every batch is stored in PostgreSQL, then indexed in Lucene, holding the swap
+            // lock one batch at a time so a rebuild can swap in mid-stream
+            IndexWriter writer = indexManager.getWriter();
+            BulkIngestPipeline.Outcome outcome = ingestPipeline.run(entities, options.getProgressListener());
+            if (outboxApplier != null) {
+                outboxApplier.afterWrite(outcome.sequence(), options);
+            } else {
+                afterBulkWrite(writer, outcome, options);
+            }
 
-            indexedDocuments.addAndGet(entities.size());
-            log.debug("Indexed {} entities of type: {}", entities.size(), entityType);
+            indexedDocuments.addAndGet(outcome.processed());
+            log.debug("Indexed {} entities of type: {}", outcome.processed(), entityType);
+            return outcome.processed();
         } catch (Exception e) {
-            log.error("Failed to index batch of {} entities", entities.size(), e);
-            throw new RuntimeException("Failed to index batch", e);
+            log.error("Failed to index entities of type: {}", entityType, e);
+            throw new RuntimeException("Failed to index entities", e);
+        }
+    }
+
+    /**
+     * Apply the write options after a bulk run that started on the given writer
+     */
+    private void afterBulkWrite(IndexWriter writer, BulkIngestPipeline.Outcome outcome, WriteOptions options)
+            throws IOException {
+        indexSwapLock.readLock().lock();
+        try {
+            // After a swap the run's sequence numbers mean nothing to the new writer, which
+            // already holds every batch through the rebuild catch-up
+            IndexWriter current = indexManager.getWriter();
+            long sequence = current == writer ? outcome.sequence() : current.getMaxCompletedSequenceNumber();
+            indexManager.afterWrite(sequence, outcome.processed(), options);
+        } finally {
+            indexSwapLock.readLock().unlock();
         }
     }
 
+    @Override
+    public long indexAll(Stream<T> entities, WriteOptions options) {
+        return indexAll(entities.iterator(), options);
+    }
+
+    @Override
+    public CompletableFuture<Long> indexAll(Flow.Publisher<T> entities, WriteOptions options) {
+        return PublisherIterator.consume(entities, ingestPipeline.getBatchSize(), "seekly-ingest-" + entityType,
+                iterator -> indexAll(iterator, options));
+    }
+
     @Override
     public void removeFromIndex(String entityId) {
+        removeFromIndex(entityId, WriteOptions.builder().build());
+    }
+
+    @Override
+    public void removeFromIndex(String entityId, WriteOptions options) {
+        indexSwapLock.readLock().lock();
         try {
             // Remove from PostgreSQL
-            removeFromPostgres(entityId);
+            long sequence = removeFromPostgres(entityId);
 
             // Remove from Lucene
-            removeFromLucene(entityId);
+            if (outboxApplier != null) {
+                outboxApplier.afterWrite(sequence, options);
+            } else {
+                removeFromLucene(entityId, options);
+            }
 
             deletedDocuments.incrementAndGet();
             log.debug("Removed entity with ID: {} from index", entityId);
         } catch (Exception e) {
             log.error("Failed to remove entity: {}", entityId, e);
             throw new RuntimeException("Failed to remove entity", e);
+        } finally {
+            indexSwapLock.readLock().unlock();
         }
     }
 
     @Override
     public void updateIndex(T entity) {
+        updateIndex(entity, WriteOptions.builder().build());
+    }
+
+    @Override
+    public void updateIndex(T entity, WriteOptions options) {
+        indexSwapLock.readLock().lock();
         try {
             // Update in PostgreSQL
-            updateInPostgres(entity);
+            long sequence = updateInPostgres(entity);
 
             // Update in Lucene
-            updateInLucene(entity);
+            if (outboxApplier != null) {
+                outboxApplier.afterWrite(sequence, options);
+            } else {
+                updateInLucene(entity, options);
+            }
 
             updatedDocuments.incrementAndGet();
             log.debug("Updated entity: {} with ID: {}", entity.getEntityType(), entity.getId());
         } catch (Exception e) {
             log.error("Failed to update entity: {}", entity.getId(), e);
             throw new RuntimeException("Failed to update entity", e);
+        } finally {
+            indexSwapLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            indexManager.refresh();
+            log.debug("Refreshed searcher for entity type: {}", entityType);
+        } catch (IOException e) {
+            log.error("Failed to flush index", e);
+            throw new RuntimeException("Failed to flush index", e);
+        }
+    }
+
+    @Override
+    public void commit() {
+        try {
+            indexManager.commit();
+            log.debug("Committed index for entity type: {}", entityType);
+        } catch (IOException e) {
+            log.error("Failed to commit index", e);
+            throw new RuntimeException("Failed to commit index", e);
         }
     }
 
@@ -172,9 +364,13 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
         totalSearches.incrementAndGet();
 
         try {
-            Query luceneQuery = buildQuery(query, options);
-
-            SearchResponse<T> response = executeSearch(luceneQuery, options);
+            SearchResponse<T> response = resultCache.get(query, filters, options);
+            boolean cached = response != null;
+            long cacheGeneration = resultCache.generation();
+            if (!cached) {
+                Query luceneQuery = FilterCompiler.apply(queryCompiler.compile(query, options), filters);
+                response = executeSearch(luceneQuery, options);
+            }
 
             long searchTime = System.currentTimeMillis() - startTime;
             response.setSearchTimeMs(searchTime);
@@ -185,6 +381,10 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
             response.setSuccess(true);
             response.setTimestamp(LocalDateTime.now());
 
+            if (!cached) {
+                resultCache.put(query, filters, options, response, cacheGeneration);
+            }
+
             // Update metrics
             totalSearchTime.addAndGet(searchTime);
             successfulSearches.incrementAndGet();
@@ -226,6 +426,43 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
         }
     }
 
+    @Override
+    public CompletableFuture<SearchResponse<T>> searchAsync(String query, SearchOptions options) {
+        return searchAsync(query, Collections.emptyMap(), options);
+    }
+
+    @Override
+    public CompletableFuture<SearchResponse<T>> searchAsync(String query, Map<String, Object> filters,
+            SearchOptions options) {
+        return asyncExecutor.submit(() -> search(query, filters, options));
+    }
+
+    @Override
+    public CompletableFuture<Void> indexAsync(T entity) {
+        return indexAsync(entity, WriteOptions.builder().build());
+    }
+
+    @Override
+    public CompletableFuture<Void> indexAsync(T entity, WriteOptions options) {
+        return asyncExecutor.submit(() -> {
+            index(entity, options);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> indexBatchAsync(List<T> entities) {
+        return indexBatchAsync(entities, WriteOptions.builder().build());
+    }
+
+    @Override
+    public CompletableFuture<Void> indexBatchAsync(List<T> entities, WriteOptions options) {
+        return asyncExecutor.submit(() -> {
+            indexBatch(entities, options);
+            return null;
+        });
+    }
+
     @Override
     public List<String> getSuggestions(String partialQuery, int maxSuggestions) {
         // Implementation for search suggestions using PostgreSQL
@@ -308,17 +545,109 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
 
     @Override
     public void clearIndex() {
+        maintenanceLock.lock();
+        Path path = null;
         try {
-            // Clear PostgreSQL table
-            clearPostgresTable();
-
-            // Clear Lucene index
-            clearLuceneIndex();
+            // Searches keep the current version until the empty one is swapped in
+            path = indexManager.newIndexPath();
+            createEmptyIndex(path);
+
+            indexSwapLock.writeLock().lock();
+            try {
+                clearPostgresTable();
+                indexManager.swap(path);
+            } finally {
+                indexSwapLock.writeLock().unlock();
+            }
 
             log.info("Cleared entire index for entity type: {}", entityType);
         } catch (Exception e) {
             log.error("Failed to clear index", e);
+            discardIndexVersion(path, e);
             throw new RuntimeException("Failed to clear index", e);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    /**
+     * Store the entities in PostgreSQL, then rebuild the Lucene index from the
+     * whole documents table, since PostgreSQL stays the source of truth
+     */
+    @Override
+    public long rebuildIndex(Iterator<T> entities) {
+        indexAll(entities, WriteOptions.builder().build());
+        return reindexFromSource();
+    }
+
+    @Override
+    public void rollbackIndex() {
+        maintenanceLock.lock();
+        indexSwapLock.writeLock().lock();
+        try {
+            Path path = indexManager.rollback();
+            // The documents table is not rolled back; reindexFromSource brings the index up to date again
+            log.info("Rolled back index for entity type: {} to {}", entityType, path);
+        } catch (Exception e) {
+            log.error("Failed to roll back index for entity type: {}", entityType, e);
+            throw new RuntimeException("Failed to roll back index", e);
+        } finally {
+            indexSwapLock.writeLock().unlock();
+            maintenanceLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the Lucene index from the PostgreSQL documents table.
+     * The table is split into ID ranges scanned in parallel through server-side
+     * cursors, and the documents are written to a new index version while the
+     * current one keeps serving searches and writes. Entities written in the
+     * meantime are re-read from PostgreSQL into the new version, which is then
+     * swapped in atomically, with writes paused only for the final catch-up.
+     * Searches never wait: those running at the swap finish on the old version,
+     * whose readers and directory stay open until its last searcher is
+     * released. The replaced version is kept for {@link #rollbackIndex()}.
+     *
+     * @return number of entities indexed by the scan
+     */
+    public long reindexFromSource() {
+        maintenanceLock.lock();
+        long startTime = System.currentTimeMillis();
+        Path path = null;
+        rebuildChanges = ConcurrentHashMap.newKeySet();
+        try {
+            path = indexManager.newIndexPath();
+            IndexWriterConfig writerConfig = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                    .setRAMBufferSizeMB(REINDEX_RAM_BUFFER_MB);
+            long indexed;
+            try (Directory directory = FSDirectory.open(path);
+                    IndexWriter writer = new IndexWriter(directory, writerConfig)) {
+                indexed = scanIntoIndex(writer);
+
+                // Catch up with concurrent writes, then pause them for the last few
+                applyRebuildChanges(writer);
+                indexSwapLock.writeLock().lock();
+                try {
+                    applyRebuildChanges(writer);
+                    // Commits and releases the write lock the swapped-in index needs
+                    writer.close();
+                    indexManager.swap(path);
+                } finally {
+                    indexSwapLock.writeLock().unlock();
+                }
+            }
+
+            log.info("Rebuilt index for entity type: {} from {} rows in {}ms", entityType, indexed,
+                    System.currentTimeMillis() - startTime);
+            return indexed;
+        } catch (Exception e) {
+            log.error("Failed to rebuild index for entity type: {}", entityType, e);
+            discardIndexVersion(path, e);
+            throw new RuntimeException("Failed to rebuild index", e);
+        } finally {
+            rebuildChanges = null;
+            maintenanceLock.unlock();
         }
     }
 
@@ -333,7 +662,7 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
                     .deletedDocuments(0) // PostgreSQL doesn't track deleted docs like Lucene
                     .segmentCount(1) // PostgreSQL is one "segment"
                     .version(1)
-                    .lastCommit(LocalDateTime.now())
+                    .lastCommit(indexManager.getLastCommit())
                     .lastOptimization(lastOptimization)
                     .optimized(true)
                     .health(IndexStats.IndexHealth.HEALTHY)
@@ -344,6 +673,21 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
         }
     }
 
+    @Override
+    public QueryCacheStats getQueryCacheStats() {
+        return indexManager.getQueryCacheStats();
+    }
+
+    @Override
+    public CacheStats getQueryPlanCacheStats() {
+        return queryCompiler.getPlanCacheStats();
+    }
+
+    @Override
+    public CacheStats getResultCacheStats() {
+        return resultCache.getStats();
+    }
+
     @Override
     public void optimizeIndex() {
         try {
@@ -373,11 +717,18 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
             }
 
             // Check Lucene index
-            try (IndexReader reader = DirectoryReader.open(luceneDirectory)) {
-                return reader.numDocs() >= 0;
+            if (!indexManager.isOpen()) {
+                return false;
+            }
+
+            IndexSearcher searcher = indexManager.acquireSearcher();
+            try {
+                return searcher.getIndexReader().numDocs() >= 0;
             } catch (Exception e) {
                 log.error("Failed to check index health", e);
                 throw new RuntimeException("Failed to check index health", e);
+            } finally {
+                indexManager.releaseSearcher(searcher);
             }
 
 //            return true;
@@ -387,23 +738,62 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
         }
     }
 
+    @Override
+    public void close() {
+        // Let in-flight async operations finish before the index goes away
+        asyncExecutor.close();
+        ingestPipeline.close();
+        if (outboxApplier != null) {
+            outboxApplier.close();
+        }
+        try {
+            indexManager.close();
+        } catch (IOException e) {
+            log.error("Failed to close Lucene index for entity type: {}", entityType, e);
+            throw new RuntimeException("Failed to close index", e);
+        } finally {
+            if (dataSource instanceof HikariDataSource hikariDataSource) {
+                hikariDataSource.close();
+            }
+        }
+        log.info("LucenePostgresSearchEngine closed for entity type: {}", entityType);
+    }
+
     // Private helper methods
 
-    private DataSource createDataSource(String dbUrl, String dbUsername, String dbPassword) {
+    private DataSource createDataSource(PostgresSearchConfig searchConfig) {
         HikariConfig config = new HikariConfig();
-        config.setJdbcUrl(dbUrl);
-        config.setUsername(dbUsername);
-        config.setPassword(dbPassword);
-        config.setMaximumPoolSize(20);
-        config.setMinimumIdle(5);
-        config.setConnectionTimeout(30000);
-        config.setIdleTimeout(600000);
-        config.setMaxLifetime(1800000);
+        config.setJdbcUrl(searchConfig.getDbUrl());
+        config.setUsername(searchConfig.getDbUsername());
+        config.setPassword(searchConfig.getDbPassword());
+        config.setMaximumPoolSize(searchConfig.getMaxPoolSize());
+        config.setMinimumIdle(searchConfig.getMinIdle());
+        config.setConnectionTimeout(searchConfig.getConnectionTimeout());
+        config.setIdleTimeout(searchConfig.getIdleTimeout());
+        config.setMaxLifetime(searchConfig.getMaxLifetime());
         config.setPoolName("SeeklySearchPool-" + entityType);
 
         return new HikariDataSource(config);
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> resolveEntityClass(PostgresSearchConfig config) {
+        // Without it results could only be decoded into untyped maps
+        if (config.getEntityClass() == null) {
+            throw new IllegalArgumentException("No entity class configured for entity type: "
+                    + config.getEntityType());
+        }
+        return (Class<T>) config.getEntityClass();
+    }
+
+    @SuppressWarnings("unchecked")
+    private EntityCodec<T> resolveBinaryCodec(PostgresSearchConfig config, Class<T> entityClass) {
+        if (config.getEntityCodec() != null) {
+            return (EntityCodec<T>) config.getEntityCodec();
+        }
+        return JacksonEntityCodec.binary(config.getEntityEncoding(), entityClass);
+    }
+
     private void initializeDatabase() {
         String createTableSql = """
                 CREATE TABLE IF NOT EXISTS %s (
@@ -416,6 +806,7 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
                     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     active BOOLEAN DEFAULT TRUE,
                     entity_data JSONB NOT NULL,
+                    entity_data_bin BYTEA,
                     INDEX idx_searchable_content (searchable_content),
                     INDEX idx_entity_type (entity_type),
                     INDEX idx_relevance_score (relevance_score),
@@ -425,9 +816,16 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
                 )
                 """.formatted(tableName);
 
+        // Tables created before the binary entity column existed
+        String addBinaryColumnSql = "ALTER TABLE " + tableName + " ADD COLUMN IF NOT EXISTS entity_data_bin BYTEA";
+
         try (Connection conn = dataSource.getConnection();
                 Statement stmt = conn.createStatement()) {
             stmt.execute(createTableSql);
+            stmt.execute(addBinaryColumnSql);
+            if (outboxTable != null) {
+                stmt.execute(OutboxApplier.createTableSql(outboxTable));
+            }
             log.info("Initialized database table: {}", tableName);
         } catch (SQLException e) {
             log.error("Failed to initialize database table: {}", tableName, e);
@@ -435,18 +833,16 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
         }
     }
 
-    private void createLuceneIndex() throws IOException {
-        try (IndexWriter writer = createIndexWriter()) {
-            writer.commit();
-            log.info("Created new Lucene index for entity type: {}", entityType);
-        }
-    }
-
-    private void storeInPostgres(T entity) throws SQLException, JsonProcessingException {
+    /**
+     * Upsert the entity, recording it in the outbox in the same transaction
+     *
+     * @return outbox sequence, or -1 without an outbox
+     */
+    private long storeInPostgres(T entity) throws SQLException, IOException {
         String sql = """
                 INSERT INTO %s (id, entity_type, searchable_content, searchable_fields,
-                               relevance_score, created_at, updated_at, active, entity_data)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                               relevance_score, created_at, updated_at, active, entity_data, entity_data_bin)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 ON CONFLICT (id) DO UPDATE SET
                     entity_type = EXCLUDED.entity_type,
                     searchable_content = EXCLUDED.searchable_content,
@@ -454,31 +850,69 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
                     relevance_score = EXCLUDED.relevance_score,
                     updated_at = EXCLUDED.updated_at,
                     active = EXCLUDED.active,
-                    entity_data = EXCLUDED.entity_data
+                    entity_data = EXCLUDED.entity_data,
+                    entity_data_bin = EXCLUDED.entity_data_bin
                 """.formatted(tableName);
 
-        try (Connection conn = dataSource.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, entity.getId());
+                stmt.setString(2, entity.getEntityType());
+                stmt.setString(3, entity.getSearchableContent());
+                stmt.setString(4, objectMapper.writeValueAsString(entity.getSearchableFields()));
+                stmt.setDouble(5, entity.getRelevanceScore());
+                stmt.setTimestamp(6, Timestamp.valueOf(entity.getCreatedAt()));
+                stmt.setTimestamp(7, Timestamp.valueOf(entity.getUpdatedAt()));
+                stmt.setBoolean(8, entity.isActive());
+                stmt.setString(9, jsonCodec.encodeToString(entity));
+                stmt.setBytes(10, binaryCodec != null ? binaryCodec.encode(entity) : null);
+
+                stmt.executeUpdate();
+                long sequence = recordOutbox(conn, List.of(entity.getId()));
+                conn.commit();
+                trackRebuildChanges(List.of(entity.getId()));
+                return sequence;
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
 
-            stmt.setString(1, entity.getId());
-            stmt.setString(2, entity.getEntityType());
-            stmt.setString(3, entity.getSearchableContent());
-            stmt.setString(4, objectMapper.writeValueAsString(entity.getSearchableFields()));
-            stmt.setDouble(5, entity.getRelevanceScore());
-            stmt.setTimestamp(6, Timestamp.valueOf(entity.getCreatedAt()));
-            stmt.setTimestamp(7, Timestamp.valueOf(entity.getUpdatedAt()));
-            stmt.setBoolean(8, entity.isActive());
-            stmt.setString(9, objectMapper.writeValueAsString(entity));
+    /**
+     * Record changed entities in the outbox on the caller's transaction
+     *
+     * @return outbox sequence, or -1 without an outbox
+     */
+    private long recordOutbox(Connection conn, Collection<String> entityIds) throws SQLException {
+        return outboxApplier != null ? outboxApplier.record(conn, entityIds) : -1;
+    }
 
-            stmt.executeUpdate();
+    /**
+     * Remember committed changes for a running rebuild, which re-reads them before its swap
+     */
+    private void trackRebuildChanges(Collection<String> entityIds) {
+        Set<String> changes = rebuildChanges;
+        if (changes != null) {
+            changes.addAll(entityIds);
         }
     }
 
-    private void batchStoreInPostgres(List<T> entities) throws SQLException, JsonProcessingException {
+    /**
+     * Upsert the batch in one transaction, recording it in the outbox
+     *
+     * @return outbox sequence, or -1 without an outbox
+     */
+    private long batchStoreInPostgres(List<PreparedEntity<T>> batch) throws SQLException {
+        if (bulkLoadMode == BulkLoadMode.COPY) {
+            return copyStoreInPostgres(batch);
+        }
+
         String sql = """
                 INSERT INTO %s (id, entity_type, searchable_content, searchable_fields,
-                               relevance_score, created_at, updated_at, active, entity_data)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                               relevance_score, created_at, updated_at, active, entity_data, entity_data_bin)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
                 ON CONFLICT (id) DO UPDATE SET
                     entity_type = EXCLUDED.entity_type,
                     searchable_content = EXCLUDED.searchable_content,
@@ -486,87 +920,219 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
                     relevance_score = EXCLUDED.relevance_score,
                     updated_at = EXCLUDED.updated_at,
                     active = EXCLUDED.active,
-                    entity_data = EXCLUDED.entity_data
+                    entity_data = EXCLUDED.entity_data,
+                    entity_data_bin = EXCLUDED.entity_data_bin
                 """.formatted(tableName);
 
-        try (Connection conn = dataSource.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (PreparedEntity<T> prepared : batch) {
+                    T entity = prepared.entity();
+                    stmt.setString(1, entity.getId());
+                    stmt.setString(2, entity.getEntityType());
+                    stmt.setString(3, entity.getSearchableContent());
+                    stmt.setString(4, prepared.searchableFields());
+                    stmt.setDouble(5, entity.getRelevanceScore());
+                    stmt.setTimestamp(6, Timestamp.valueOf(entity.getCreatedAt()));
+                    stmt.setTimestamp(7, Timestamp.valueOf(entity.getUpdatedAt()));
+                    stmt.setBoolean(8, entity.isActive());
+                    stmt.setString(9, prepared.entityData());
+                    stmt.setBytes(10, prepared.entityDataBin());
+
+                    stmt.addBatch();
+                }
+
+                stmt.executeBatch();
+                List<String> entityIds = new ArrayList<>(batch.size());
+                for (PreparedEntity<T> prepared : batch) {
+                    entityIds.add(prepared.entity().getId());
+                }
+                long sequence = recordOutbox(conn, entityIds);
+                conn.commit();
+                trackRebuildChanges(entityIds);
+                return sequence;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Stream the batch into a session-local staging table with COPY and merge it
+     * into the documents table with a single upsert, in one transaction
+     */
+    private long copyStoreInPostgres(List<PreparedEntity<T>> batch) throws SQLException {
+        String stagingTable = tableName + "_staging";
+        String createStagingSql = """
+                CREATE TEMP TABLE IF NOT EXISTS %s (LIKE %s INCLUDING DEFAULTS) ON COMMIT DELETE ROWS
+                """.formatted(stagingTable, tableName);
+        String copySql = """
+                COPY %s (%s) FROM STDIN WITH (FORMAT csv)
+                """.formatted(stagingTable, BULK_COLUMNS);
+        String mergeSql = """
+                INSERT INTO %s (%s)
+                SELECT %s FROM %s
+                ON CONFLICT (id) DO UPDATE SET
+                    entity_type = EXCLUDED.entity_type,
+                    searchable_content = EXCLUDED.searchable_content,
+                    searchable_fields = EXCLUDED.searchable_fields,
+                    relevance_score = EXCLUDED.relevance_score,
+                    updated_at = EXCLUDED.updated_at,
+                    active = EXCLUDED.active,
+                    entity_data = EXCLUDED.entity_data,
+                    entity_data_bin = EXCLUDED.entity_data_bin
+                """.formatted(tableName, BULK_COLUMNS, BULK_COLUMNS, stagingTable);
+
+        // A single upsert cannot touch the same row twice, so the last version of an ID wins
+        Map<String, PreparedEntity<T>> rows = new LinkedHashMap<>();
+        for (PreparedEntity<T> prepared : batch) {
+            rows.put(prepared.entity().getId(), prepared);
+        }
 
+        try (Connection conn = dataSource.getConnection()) {
             conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(createStagingSql);
+                }
 
-            for (T entity : entities) {
-                stmt.setString(1, entity.getId());
-                stmt.setString(2, entity.getEntityType());
-                stmt.setString(3, entity.getSearchableContent());
-                stmt.setString(4, objectMapper.writeValueAsString(entity.getSearchableFields()));
-                stmt.setDouble(5, entity.getRelevanceScore());
-                stmt.setTimestamp(6, Timestamp.valueOf(entity.getCreatedAt()));
-                stmt.setTimestamp(7, Timestamp.valueOf(entity.getUpdatedAt()));
-                stmt.setBoolean(8, entity.isActive());
-                stmt.setString(9, objectMapper.writeValueAsString(entity));
+                CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+                try {
+                    // Rows are flushed in chunks, so the CSV never holds the whole batch
+                    StringBuilder csv = new StringBuilder(COPY_CHUNK_CHARS + 1024);
+                    for (PreparedEntity<T> prepared : rows.values()) {
+                        appendCsvRow(csv, prepared);
+                        if (csv.length() >= COPY_CHUNK_CHARS) {
+                            writeToCopy(copyIn, csv);
+                        }
+                    }
+                    writeToCopy(copyIn, csv);
+                    copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
 
-                stmt.addBatch();
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate(mergeSql);
+                }
+                long sequence = recordOutbox(conn, rows.keySet());
+                conn.commit();
+                trackRebuildChanges(rows.keySet());
+                return sequence;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
             }
-
-            stmt.executeBatch();
-            conn.commit();
         }
     }
 
-    private void indexInLucene(T entity) throws IOException {
-        try (IndexWriter writer = createIndexWriter()) {
-            Document doc = createDocument(entity);
-            writer.addDocument(doc);
-            writer.commit();
+    private static void writeToCopy(CopyIn copyIn, StringBuilder csv) throws SQLException {
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        csv.setLength(0);
+    }
+
+    private void appendCsvRow(StringBuilder csv, PreparedEntity<T> prepared) {
+        T entity = prepared.entity();
+        appendCsvValue(csv, entity.getId()).append(',');
+        appendCsvValue(csv, entity.getEntityType()).append(',');
+        appendCsvValue(csv, entity.getSearchableContent()).append(',');
+        appendCsvValue(csv, prepared.searchableFields()).append(',');
+        csv.append(entity.getRelevanceScore()).append(',');
+        appendCsvValue(csv, entity.getCreatedAt() != null ? Timestamp.valueOf(entity.getCreatedAt()).toString() : null)
+                .append(',');
+        appendCsvValue(csv, entity.getUpdatedAt() != null ? Timestamp.valueOf(entity.getUpdatedAt()).toString() : null)
+                .append(',');
+        csv.append(entity.isActive()).append(',');
+        appendCsvValue(csv, prepared.entityData()).append(',');
+        if (prepared.entityDataBin() != null) {
+            csv.append("\\x").append(HexFormat.of().formatHex(prepared.entityDataBin()));
         }
+        csv.append('\n');
     }
 
-    private void batchIndexInLucene(List<T> entities) throws IOException {
-        try (IndexWriter writer = createIndexWriter()) {
-            for (T entity : entities) {
-                Document doc = createDocument(entity);
-                writer.addDocument(doc);
+    /**
+     * Quoted CSV value; an unquoted empty value is NULL
+     */
+    private static StringBuilder appendCsvValue(StringBuilder csv, String value) {
+        if (value == null) {
+            return csv;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
             }
-            writer.commit();
+            csv.append(c);
         }
+        return csv.append('"');
     }
 
-    private void removeFromPostgres(String entityId) throws SQLException {
-        String sql = "DELETE FROM " + tableName + " WHERE id = ?";
+    private void indexInLucene(T entity, WriteOptions options) throws IOException {
+        Document doc = createDocument(entity);
+        long generation = indexManager.getWriter().addDocument(doc);
+        indexManager.afterWrite(generation, 1, options);
+    }
 
-        try (Connection conn = dataSource.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, entityId);
-            stmt.executeUpdate();
+    private long batchIndexInLucene(List<PreparedEntity<T>> batch) throws IOException {
+        List<Document> docs = new ArrayList<>(batch.size());
+        for (PreparedEntity<T> prepared : batch) {
+            docs.add(prepared.document());
         }
+        return indexManager.getWriter().addDocuments(docs);
     }
 
-    private void removeFromLucene(String entityId) throws IOException {
-        try (IndexWriter writer = createIndexWriter()) {
-            writer.deleteDocuments(new Term("id", entityId));
-            writer.commit();
+    /**
+     * Build the Lucene document and serialize the entity, off the caller thread during bulk ingest;
+     * the outbox applier builds its own documents from the stored rows
+     */
+    private PreparedEntity<T> prepareEntity(T entity) throws IOException {
+        return new PreparedEntity<>(entity, outboxApplier == null ? createDocument(entity) : null,
+                objectMapper.writeValueAsString(entity.getSearchableFields()),
+                jsonCodec.encodeToString(entity),
+                binaryCodec != null ? binaryCodec.encode(entity) : null);
+    }
+
+    private long removeFromPostgres(String entityId) throws SQLException {
+        String sql = "DELETE FROM " + tableName + " WHERE id = ?";
+
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, entityId);
+                stmt.executeUpdate();
+                long sequence = recordOutbox(conn, List.of(entityId));
+                conn.commit();
+                trackRebuildChanges(List.of(entityId));
+                return sequence;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
         }
     }
 
-    private void updateInPostgres(T entity) throws SQLException, JsonProcessingException {
-        storeInPostgres(entity); // Uses UPSERT
+    private void removeFromLucene(String entityId, WriteOptions options) throws IOException {
+        long generation = indexManager.getWriter().deleteDocuments(new Term("id", entityId));
+        indexManager.afterWrite(generation, 1, options);
     }
 
-    private void updateInLucene(T entity) throws IOException {
-        try (IndexWriter writer = createIndexWriter()) {
-            Document doc = createDocument(entity);
-            writer.updateDocument(new Term("id", entity.getId()), doc);
-            writer.commit();
-        }
+    private long updateInPostgres(T entity) throws SQLException, IOException {
+        return storeInPostgres(entity); // Uses UPSERT
     }
 
-    private IndexWriter createIndexWriter() throws IOException {
-        IndexWriterConfig config = new IndexWriterConfig(analyzer);
-        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
-        return new IndexWriter(luceneDirectory, config);
+    private void updateInLucene(T entity, WriteOptions options) throws IOException {
+        Document doc = createDocument(entity);
+        long generation = indexManager.getWriter().updateDocument(new Term("id", entity.getId()), doc);
+        indexManager.afterWrite(generation, 1, options);
     }
 
-    private Document createDocument(T entity) {
+    private Document createDocument(T entity) throws IOException {
         Document doc = new Document();
         doc.add(new StringField("id", entity.getId(), Field.Store.YES));
         doc.add(new StringField("entityType", entity.getEntityType(), Field.Store.YES));
@@ -580,52 +1146,41 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
         for (Map.Entry<String, String> field : entity.getSearchableFields().entrySet()) {
             doc.add(new TextField(field.getKey(), field.getValue(), Field.Store.YES));
         }
+        queryCompiler.addSearchableFields(entity.getSearchableFields().keySet());
 
-        return doc;
-    }
-
-    private Query buildQuery(String queryString, SearchOptions options) {
-        BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+        // Non-scoring filter fields
+        FilterCompiler.index(doc, entity.getFilterableFields());
 
-        // Main content query
-        Query contentQuery = new FuzzyQuery(new Term("content", queryString.toLowerCase()));
-        contentQuery = new BoostQuery(contentQuery, options.getExactMatchBoost());
-        queryBuilder.add(contentQuery, BooleanClause.Occur.SHOULD);
+        storedFieldsHydrator.addSource(doc, entity);
 
-        // Add field-specific queries if specified
-        if (options.getSearchFields() != null) {
-            for (String field : options.getSearchFields()) {
-                Query fieldQuery = new FuzzyQuery(new Term(field, queryString.toLowerCase()));
-                queryBuilder.add(fieldQuery, BooleanClause.Occur.SHOULD);
-            }
-        }
-
-        return queryBuilder.build();
+        return doc;
     }
 
     private SearchResponse<T> executeSearch(Query query, SearchOptions options) throws IOException {
-        try (IndexReader reader = DirectoryReader.open(luceneDirectory)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
-
-            TopDocs topDocs = searcher.search(query, options.getMaxResults());
+        IndexSearcher searcher = indexManager.acquireSearcher(options);
+        try {
+            SearchPage page = SearchPage.collect(searcher, query, options, maxResultWindow);
+            if (page.getNextCursor() != null) {
+                // The next page must see the same snapshot
+                indexManager.keepSearcher(searcher);
+            }
+            List<T> entities = hydrateEntities(searcher, page.getHits(), options);
 
             List<SearchResult<T>> results = new ArrayList<>();
-            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
-                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
-                Document doc = searcher.storedFields().document(scoreDoc.doc);
-
-                // Retrieve full entity from PostgreSQL
-                T entity = retrieveEntityFromPostgres(doc.get("id"));
+            for (int i = 0; i < page.getHits().length; i++) {
+                ScoreDoc scoreDoc = page.getHits()[i];
+                T entity = entities.get(i);
+                int position = page.getStart() + i;
 
                 if (entity != null) {
                     SearchResult<T> result = SearchResult.<T>builder()
                             .entity(entity)
                             .score(scoreDoc.score)
-                            .rank(i + 1)
-                            .inTop10(i < 10)
-                            .inTop5(i < 5)
-                            .inTop3(i < 3)
-                            .isFirst(i == 0)
+                            .rank(position + 1)
+                            .inTop10(position < 10)
+                            .inTop5(position < 5)
+                            .inTop3(position < 3)
+                            .isFirst(position == 0)
                             .timestamp(LocalDateTime.now())
                             .build();
 
@@ -635,49 +1190,277 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
 
             return SearchResponse.<T>builder()
                     .results(results)
-                    .totalHits(topDocs.totalHits.value())
+                    .totalHits(page.getTotalHits())
+                    .nextCursor(page.getNextCursor())
+                    .facets(page.getFacetHits() != null ? FacetCounter.count(page.getFacetHits(), options) : null)
                     .build();
+        } finally {
+            indexManager.releaseSearcher(searcher);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private T retrieveEntityFromPostgres(String entityId) {
-        String sql = "SELECT entity_data FROM " + tableName + " WHERE id = ? AND active = TRUE";
+    /**
+     * Entities for the given hits in rank order; null where a hit is inactive
+     * or no longer stored
+     */
+    private List<T> hydrateEntities(IndexSearcher searcher, ScoreDoc[] scoreDocs, SearchOptions options)
+            throws IOException {
+        StoredFields storedFields = searcher.storedFields();
+        List<T> entities = new ArrayList<>(scoreDocs.length);
+
+        if (hydrationMode == HydrationMode.STORED_FIELDS) {
+            for (ScoreDoc scoreDoc : scoreDocs) {
+                Document doc = storedFieldsHydrator.load(storedFields, scoreDoc.doc, options);
+                boolean active = !"false".equals(doc.get("active"));
+                entities.add(active ? storedFieldsHydrator.hydrate(doc, options) : null);
+            }
+            return entities;
+        }
+
+        // Collect ids of the page in rank order
+        List<String> entityIds = new ArrayList<>(scoreDocs.length);
+        for (ScoreDoc scoreDoc : scoreDocs) {
+            entityIds.add(storedFields.document(scoreDoc.doc, ID_FIELD).get("id"));
+        }
 
+        // Retrieve full entities from PostgreSQL in a single round-trip
+        Map<String, T> entitiesById = retrieveEntitiesFromPostgres(entityIds);
+        for (String entityId : entityIds) {
+            entities.add(entitiesById.get(entityId));
+        }
+        return entities;
+    }
+
+    private Map<String, T> retrieveEntitiesFromPostgres(List<String> entityIds) {
+        if (entityIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        String columns = binaryCodec != null ? "id, entity_data, entity_data_bin" : "id, entity_data";
+        String sql = "SELECT " + columns + " FROM " + tableName + " WHERE id = ANY(?) AND active = TRUE";
+
+        Map<String, T> entities = new HashMap<>();
         try (Connection conn = dataSource.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, entityId);
+            Array ids = conn.createArrayOf("varchar", entityIds.toArray());
+            stmt.setArray(1, ids);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    String entityJson = rs.getString("entity_data");
-                    return (T) objectMapper.readValue(entityJson, Object.class);
+                while (rs.next()) {
+                    entities.put(rs.getString("id"), decodeEntity(rs));
                 }
+            } finally {
+                ids.free();
             }
         } catch (Exception e) {
-            log.error("Failed to retrieve entity: {}", entityId, e);
+            // An empty page would look like a successful search with no hits
+            log.error("Failed to retrieve {} entities", entityIds.size(), e);
+            throw new RuntimeException("Failed to retrieve entities", e);
+        }
+
+        return entities;
+    }
+
+    private T decodeEntity(ResultSet rs) throws SQLException, IOException {
+        // Prefer the binary copy; rows written before it was enabled only have JSON
+        if (binaryCodec != null) {
+            byte[] entityBytes = rs.getBytes("entity_data_bin");
+            if (entityBytes != null) {
+                return binaryCodec.decode(entityBytes);
+            }
+        }
+        return jsonCodec.decode(rs.getString("entity_data"));
+    }
+
+    /**
+     * Scan the documents table in parallel ID ranges into the writer
+     */
+    private long scanIntoIndex(IndexWriter writer) throws Exception {
+        List<String> bounds = partitionBounds(reindexThreads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(bounds.size() + 1, runnable -> {
+            Thread thread = new Thread(runnable, "seekly-reindex-" + entityType + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            // Partition i covers (bounds[i - 1], bounds[i]]; the first and last are open-ended
+            List<CompletableFuture<Long>> partitions = new ArrayList<>();
+            for (int i = 0; i <= bounds.size(); i++) {
+                String lower = i > 0 ? bounds.get(i - 1) : null;
+                String upper = i < bounds.size() ? bounds.get(i) : null;
+                partitions.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return scanPartition(writer, lower, upper);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            long indexed = 0;
+            for (CompletableFuture<Long> partition : partitions) {
+                try {
+                    indexed += partition.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+            return indexed;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * IDs splitting the table into roughly equal ranges
+     */
+    private List<String> partitionBounds(int partitions) throws SQLException {
+        if (partitions <= 1) {
+            return List.of();
         }
 
-        return null;
+        Double[] fractions = new Double[partitions - 1];
+        for (int i = 1; i < partitions; i++) {
+            fractions[i - 1] = (double) i / partitions;
+        }
+        String sql = "SELECT percentile_disc(?) WITHIN GROUP (ORDER BY id) FROM " + tableName;
+
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Array fractionArray = conn.createArrayOf("float8", fractions);
+            try {
+                stmt.setArray(1, fractionArray);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    Array bounds = rs.next() ? rs.getArray(1) : null;
+                    if (bounds == null) {
+                        return List.of();
+                    }
+                    // Small tables repeat bounds
+                    return new ArrayList<>(new TreeSet<>(Arrays.asList((String[]) bounds.getArray())));
+                }
+            } finally {
+                fractionArray.free();
+            }
+        }
+    }
+
+    private long scanPartition(IndexWriter writer, String lower, String upper) throws Exception {
+        StringBuilder sql = new StringBuilder("SELECT id, entity_data, entity_data_bin FROM " + tableName
+                + " WHERE TRUE");
+        if (lower != null) {
+            sql.append(" AND id > ?");
+        }
+        if (upper != null) {
+            sql.append(" AND id <= ?");
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            // The driver only streams with a fetch size inside a transaction
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                stmt.setFetchSize(REINDEX_FETCH_SIZE);
+                int parameter = 1;
+                if (lower != null) {
+                    stmt.setString(parameter++, lower);
+                }
+                if (upper != null) {
+                    stmt.setString(parameter, upper);
+                }
+
+                long indexed = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        writer.addDocument(createDocument(decodeEntity(rs)));
+                        indexed++;
+                    }
+                }
+                conn.commit();
+                return indexed;
+            }
+        }
+    }
+
+    /**
+     * Re-read entities changed since the rebuild started into the new index
+     */
+    private void applyRebuildChanges(IndexWriter writer) throws SQLException, IOException {
+        Set<String> changes = rebuildChanges;
+        while (!changes.isEmpty()) {
+            List<String> entityIds = new ArrayList<>(REINDEX_FETCH_SIZE);
+            Iterator<String> pending = changes.iterator();
+            while (pending.hasNext() && entityIds.size() < REINDEX_FETCH_SIZE) {
+                entityIds.add(pending.next());
+                pending.remove();
+            }
+
+            String sql = "SELECT id, entity_data, entity_data_bin FROM " + tableName + " WHERE id = ANY(?)";
+            Set<String> missing = new HashSet<>(entityIds);
+            try (Connection conn = dataSource.getConnection();
+                    PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Array ids = conn.createArrayOf("varchar", entityIds.toArray());
+                try {
+                    stmt.setArray(1, ids);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            String entityId = rs.getString("id");
+                            missing.remove(entityId);
+                            writer.updateDocument(new Term("id", entityId), createDocument(decodeEntity(rs)));
+                        }
+                    }
+                } finally {
+                    ids.free();
+                }
+            }
+            for (String entityId : missing) {
+                writer.deleteDocuments(new Term("id", entityId));
+            }
+        }
     }
 
     private void clearPostgresTable() throws SQLException {
         String sql = "DELETE FROM " + tableName;
 
-        try (Connection conn = dataSource.getConnection();
-                Statement stmt = conn.createStatement()) {
-            stmt.execute(sql);
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+                // Pending entries would only delete documents that are about to be cleared anyway
+                if (outboxTable != null) {
+                    stmt.execute("DELETE FROM " + outboxTable);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
         }
     }
 
-    private void clearLuceneIndex() throws IOException {
-        try (IndexWriter writer = createIndexWriter()) {
-            writer.deleteAll();
+    private void createEmptyIndex(Path path) throws IOException {
+        IndexWriterConfig writerConfig = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        try (Directory directory = FSDirectory.open(path);
+                IndexWriter writer = new IndexWriter(directory, writerConfig)) {
             writer.commit();
         }
     }
 
+    /**
+     * Remove an index version that failed before it was swapped in
+     */
+    private void discardIndexVersion(Path path, Exception failure) {
+        if (path != null && !path.equals(indexManager.getIndexPath())) {
+            try {
+                IOUtils.rm(path);
+            } catch (IOException cleanup) {
+                failure.addSuppressed(cleanup);
+            }
+        }
+    }
+
     private long getPostgresDocumentCount() throws SQLException {
         String sql = "SELECT COUNT(*) FROM " + tableName + " WHERE active = TRUE";
 
@@ -694,8 +1477,11 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
     }
 
     private long getLuceneDocumentCount() throws IOException {
-        try (IndexReader reader = DirectoryReader.open(luceneDirectory)) {
-            return reader.numDocs();
+        IndexSearcher searcher = indexManager.acquireSearcher();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            indexManager.releaseSearcher(searcher);
         }
     }
 
@@ -707,10 +1493,8 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
     }
 
     private void optimizeLucene() throws IOException {
-        try (IndexWriter writer = createIndexWriter()) {
-            writer.forceMerge(1);
-            writer.commit();
-        }
+        indexManager.getWriter().forceMerge(1);
+        indexManager.commit();
     }
 
     private void updateQueryPerformance(String query, long searchTime, long totalHits, int resultsReturned) {
@@ -753,4 +1537,11 @@ public class LucenePostgresSearchEngine<T extends SearchableEntity> implements S
 
         metricsTracker.trackMetrics(metrics);
     }
-}
\ No newline at end of file
+
+    /**
+     * Entity with its Lucene document and serialized column values
+     */
+    private record PreparedEntity<E>(E entity, Document document, String searchableFields, String entityData,
+            byte[] entityDataBin) {
+    }
+}
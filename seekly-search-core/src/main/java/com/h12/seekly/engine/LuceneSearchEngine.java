@@ -1,5 +1,6 @@
 package com.h12.seekly.engine;
 
+import com.h12.seekly.config.PostgresSearchConfig;
 import com.h12.seekly.core.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.lucene.analysis.Analyzer;
@@ -7,18 +8,24 @@ import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.*;
 import org.apache.lucene.index.*;
 import org.apache.lucene.search.*;
-//import org.apache.lucene.search.highlight.*;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+//import org.apache.lucene.search.highlight.*;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Lucene-based implementation of the Seekly search engine.
@@ -27,11 +34,27 @@ import java.util.stream.Collectors;
 @Slf4j
 public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEngine<T> {
 
-    private final Directory directory;
+    // Large indexing buffer for rebuilds, which write few, large segments
+    private static final double REBUILD_RAM_BUFFER_MB = 256;
+
+    private final LuceneIndexManager indexManager;
     private final Analyzer analyzer;
+    private final QueryCompiler queryCompiler;
+    private final ResultCache<T> resultCache;
+    private final AsyncExecutor asyncExecutor;
+    private final BulkIngestPipeline<T, Document> ingestPipeline;
     private final Path indexPath;
     private final String entityType;
+    private final int maxResultWindow;
     private final MetricsTracker metricsTracker;
+    private final StoredFieldsHydrator<T> storedFieldsHydrator;
+
+    // Writes share the read lock; swapping in a rebuilt index takes the write lock
+    private final ReentrantReadWriteLock indexSwapLock = new ReentrantReadWriteLock(true);
+    // Serializes rebuild, clear and rollback
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+    // Documents written while a rebuild runs, by ID (empty when deleted); null when idle
+    private volatile Map<String, Optional<Document>> rebuildChanges;
 
     // Performance tracking
     private final AtomicLong totalSearches = new AtomicLong(0);
@@ -52,75 +75,158 @@ public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEng
     private LocalDateTime lastOptimization = LocalDateTime.now();
     private LocalDateTime startTime = LocalDateTime.now();
 
-    public LuceneSearchEngine(String indexPath, String entityType) throws IOException {
-        this.indexPath = Paths.get(indexPath);
-        this.entityType = entityType;
-        this.directory = FSDirectory.open(this.indexPath);
+    /**
+     * @throws IllegalArgumentException if the configuration has no entity class
+     */
+    public LuceneSearchEngine(PostgresSearchConfig config) throws IOException {
+        Class<T> entityClass = resolveEntityClass(config);
+        this.indexPath = Paths.get(config.getLuceneIndexPath());
+        this.entityType = config.getEntityType();
         this.analyzer = new StandardAnalyzer();
+        this.queryCompiler = new QueryCompiler(analyzer, config.isCombinedFieldScoring(),
+                config.getSearchFieldWeights(), config.getQueryPlanCacheSize());
+        this.resultCache = new ResultCache<>(config.getResultCacheMaxEntries(), config.getResultCacheMaxRamBytes(),
+                config.getResultCacheMaxResults());
+        this.asyncExecutor = new AsyncExecutor(entityType, config.getAsyncMaxConcurrency(),
+                config.getAsyncTimeoutMs());
         this.metricsTracker = new MetricsTracker();
-
-        // Create index if it doesn't exist
-        if (!DirectoryReader.indexExists(directory)) {
-            createIndex();
-        }
+        this.storedFieldsHydrator = new StoredFieldsHydrator<>(entityClass, config.isStoreEntitySource());
+        this.maxResultWindow = config.getMaxResultWindow();
+        this.indexManager = new LuceneIndexManager(config, analyzer);
+        queryCompiler.addSearchableFields(indexManager.getTextFields());
+        indexManager.addRefreshListener(resultCache::invalidate);
+        this.ingestPipeline = new BulkIngestPipeline<>(entityType, config.getIngestThreads(),
+                config.getIngestBatchSize(), config.getIngestMaxPendingBatches(), T::getId, this::createDocument,
+                this::addToIndex, null, indexSwapLock.readLock());
 
         log.info("LuceneSearchEngine initialized for entity type: {} at path: {}", entityType, indexPath);
     }
 
     @Override
     public void index(T entity) {
-        try (IndexWriter writer = createIndexWriter()) {
+        index(entity, WriteOptions.builder().build());
+    }
+
+    @Override
+    public void index(T entity, WriteOptions options) {
+        indexSwapLock.readLock().lock();
+        try {
             Document doc = createDocument(entity);
-            writer.addDocument(doc);
-            writer.commit();
+            long generation = indexManager.getWriter().addDocument(doc);
+            trackRebuildChange(entity.getId(), doc);
+            indexManager.afterWrite(generation, 1, options);
             indexedDocuments.incrementAndGet();
             log.debug("Indexed entity: {} with ID: {}", entity.getEntityType(), entity.getId());
         } catch (IOException e) {
             log.error("Failed to index entity: {}", entity.getId(), e);
             throw new RuntimeException("Failed to index entity", e);
+        } finally {
+            indexSwapLock.readLock().unlock();
         }
     }
 
     @Override
     public void indexBatch(List<T> entities) {
-        try (IndexWriter writer = createIndexWriter()) {
-            for (T entity : entities) {
-                Document doc = createDocument(entity);
-                writer.addDocument(doc);
-            }
-            writer.commit();
-            indexedDocuments.addAndGet(entities.size());
-            log.debug("Indexed {} entities of type: {}", entities.size(), entityType);
-        } catch (IOException e) {
-            log.error("Failed to index batch of {} entities", entities.size(), e);
-            throw new RuntimeException("Failed to index batch", e);
+        indexBatch(entities, WriteOptions.builder().build());
+    }
+
+    @Override
+    public void indexBatch(List<T> entities, WriteOptions options) {
+        indexAll(entities.iterator(), options);
+    }
+
+    @Override
+    public long indexAll(Iterator<T> entities, WriteOptions options) {
+        try {
+            // Batches take the swap lock one at a time, so a rebuild can swap in mid-stream
+            IndexWriter writer = indexManager.getWriter();
+            BulkIngestPipeline.Outcome outcome = ingestPipeline.run(entities, options.getProgressListener());
+            afterBulkWrite(writer, outcome, options);
+
+            indexedDocuments.addAndGet(outcome.processed());
+            log.debug("Indexed {} entities of type: {}", outcome.processed(), entityType);
+            return outcome.processed();
+        } catch (Exception e) {
+            log.error("Failed to index entities of type: {}", entityType, e);
+            throw new RuntimeException("Failed to index entities", e);
         }
     }
 
+    @Override
+    public long indexAll(Stream<T> entities, WriteOptions options) {
+        return indexAll(entities.iterator(), options);
+    }
+
+    @Override
+    public CompletableFuture<Long> indexAll(Flow.Publisher<T> entities, WriteOptions options) {
+        return PublisherIterator.consume(entities, ingestPipeline.getBatchSize(), "seekly-ingest-" + entityType,
+                iterator -> indexAll(iterator, options));
+    }
+
     @Override
     public void removeFromIndex(String entityId) {
-        try (IndexWriter writer = createIndexWriter()) {
-            writer.deleteDocuments(new Term("id", entityId));
-            writer.commit();
+        removeFromIndex(entityId, WriteOptions.builder().build());
+    }
+
+    @Override
+    public void removeFromIndex(String entityId, WriteOptions options) {
+        indexSwapLock.readLock().lock();
+        try {
+            long generation = indexManager.getWriter().deleteDocuments(new Term("id", entityId));
+            trackRebuildChange(entityId, null);
+            indexManager.afterWrite(generation, 1, options);
             deletedDocuments.incrementAndGet();
             log.debug("Removed entity with ID: {} from index", entityId);
         } catch (IOException e) {
             log.error("Failed to remove entity: {}", entityId, e);
             throw new RuntimeException("Failed to remove entity", e);
+        } finally {
+            indexSwapLock.readLock().unlock();
         }
     }
 
     @Override
     public void updateIndex(T entity) {
-        try (IndexWriter writer = createIndexWriter()) {
+        updateIndex(entity, WriteOptions.builder().build());
+    }
+
+    @Override
+    public void updateIndex(T entity, WriteOptions options) {
+        indexSwapLock.readLock().lock();
+        try {
             Document doc = createDocument(entity);
-            writer.updateDocument(new Term("id", entity.getId()), doc);
-            writer.commit();
+            long generation = indexManager.getWriter().updateDocument(new Term("id", entity.getId()), doc);
+            trackRebuildChange(entity.getId(), doc);
+            indexManager.afterWrite(generation, 1, options);
             updatedDocuments.incrementAndGet();
             log.debug("Updated entity: {} with ID: {}", entity.getEntityType(), entity.getId());
         } catch (IOException e) {
             log.error("Failed to update entity: {}", entity.getId(), e);
             throw new RuntimeException("Failed to update entity", e);
+        } finally {
+            indexSwapLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            indexManager.refresh();
+            log.debug("Refreshed searcher for entity type: {}", entityType);
+        } catch (IOException e) {
+            log.error("Failed to flush index", e);
+            throw new RuntimeException("Failed to flush index", e);
+        }
+    }
+
+    @Override
+    public void commit() {
+        try {
+            indexManager.commit();
+            log.debug("Committed index for entity type: {}", entityType);
+        } catch (IOException e) {
+            log.error("Failed to commit index", e);
+            throw new RuntimeException("Failed to commit index", e);
         }
     }
 
@@ -145,10 +251,13 @@ public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEng
         totalSearches.incrementAndGet();
 
         try {
-            Query luceneQuery = buildQuery(query, options);
-//            Filter filter = buildFilter(filters);
-
-            SearchResponse<T> response = executeSearch(luceneQuery, options);
+            SearchResponse<T> response = resultCache.get(query, filters, options);
+            boolean cached = response != null;
+            long cacheGeneration = resultCache.generation();
+            if (!cached) {
+                Query luceneQuery = FilterCompiler.apply(queryCompiler.compile(query, options), filters);
+                response = executeSearch(luceneQuery, options);
+            }
 
             long searchTime = System.currentTimeMillis() - startTime;
             response.setSearchTimeMs(searchTime);
@@ -159,6 +268,10 @@ public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEng
             response.setSuccess(true);
             response.setTimestamp(LocalDateTime.now());
 
+            if (!cached) {
+                resultCache.put(query, filters, options, response, cacheGeneration);
+            }
+
             // Update metrics
             totalSearchTime.addAndGet(searchTime);
             successfulSearches.incrementAndGet();
@@ -200,6 +313,43 @@ public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEng
         }
     }
 
+    @Override
+    public CompletableFuture<SearchResponse<T>> searchAsync(String query, SearchOptions options) {
+        return searchAsync(query, Collections.emptyMap(), options);
+    }
+
+    @Override
+    public CompletableFuture<SearchResponse<T>> searchAsync(String query, Map<String, Object> filters,
+            SearchOptions options) {
+        return asyncExecutor.submit(() -> search(query, filters, options));
+    }
+
+    @Override
+    public CompletableFuture<Void> indexAsync(T entity) {
+        return indexAsync(entity, WriteOptions.builder().build());
+    }
+
+    @Override
+    public CompletableFuture<Void> indexAsync(T entity, WriteOptions options) {
+        return asyncExecutor.submit(() -> {
+            index(entity, options);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> indexBatchAsync(List<T> entities) {
+        return indexBatchAsync(entities, WriteOptions.builder().build());
+    }
+
+    @Override
+    public CompletableFuture<Void> indexBatchAsync(List<T> entities, WriteOptions options) {
+        return asyncExecutor.submit(() -> {
+            indexBatch(entities, options);
+            return null;
+        });
+    }
+
     @Override
     public List<String> getSuggestions(String partialQuery, int maxSuggestions) {
         // Implementation for search suggestions
@@ -264,40 +414,137 @@ public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEng
 
     @Override
     public void clearIndex() {
-        try (IndexWriter writer = createIndexWriter()) {
-            writer.deleteAll();
-            writer.commit();
+        maintenanceLock.lock();
+        Path path = null;
+        try {
+            // Searches keep the current version until the empty one is swapped in
+            path = indexManager.newIndexPath();
+            try (Directory directory = FSDirectory.open(path);
+                    IndexWriter writer = new IndexWriter(directory, rebuildWriterConfig())) {
+                writer.commit();
+            }
+
+            indexSwapLock.writeLock().lock();
+            try {
+                indexManager.swap(path);
+            } finally {
+                indexSwapLock.writeLock().unlock();
+            }
             log.info("Cleared entire index for entity type: {}", entityType);
         } catch (IOException e) {
             log.error("Failed to clear index", e);
+            discardIndexVersion(path, e);
             throw new RuntimeException("Failed to clear index", e);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    /**
+     * Build the new version through the ingest pipeline into a separate writer
+     * while the current one keeps serving searches and writes. Documents written
+     * in the meantime are replayed into the new version, which is then swapped in
+     * atomically, with writes paused only for the final catch-up.
+     */
+    @Override
+    public long rebuildIndex(Iterator<T> entities) {
+        maintenanceLock.lock();
+        long startTime = System.currentTimeMillis();
+        Path path = null;
+        rebuildChanges = new ConcurrentHashMap<>();
+        try {
+            path = indexManager.newIndexPath();
+            long indexed;
+            try (Directory directory = FSDirectory.open(path);
+                    IndexWriter writer = new IndexWriter(directory, rebuildWriterConfig())) {
+                indexed = ingestPipeline.run(entities, docs -> writer.addDocuments(docs), null).processed();
+
+                applyRebuildChanges(writer);
+                indexSwapLock.writeLock().lock();
+                try {
+                    applyRebuildChanges(writer);
+                    // Commits and releases the write lock the swapped-in index needs
+                    writer.close();
+                    indexManager.swap(path);
+                } finally {
+                    indexSwapLock.writeLock().unlock();
+                }
+            }
+
+            log.info("Rebuilt index for entity type: {} with {} entities in {}ms", entityType, indexed,
+                    System.currentTimeMillis() - startTime);
+            return indexed;
+        } catch (Exception e) {
+            log.error("Failed to rebuild index for entity type: {}", entityType, e);
+            discardIndexVersion(path, e);
+            throw new RuntimeException("Failed to rebuild index", e);
+        } finally {
+            rebuildChanges = null;
+            maintenanceLock.unlock();
+        }
+    }
+
+    @Override
+    public void rollbackIndex() {
+        maintenanceLock.lock();
+        indexSwapLock.writeLock().lock();
+        try {
+            Path path = indexManager.rollback();
+            log.info("Rolled back index for entity type: {} to {}", entityType, path);
+        } catch (IOException e) {
+            log.error("Failed to roll back index for entity type: {}", entityType, e);
+            throw new RuntimeException("Failed to roll back index", e);
+        } finally {
+            indexSwapLock.writeLock().unlock();
+            maintenanceLock.unlock();
         }
     }
 
     @Override
     public IndexStats getIndexStats() {
-        try (IndexReader reader = DirectoryReader.open(directory)) {
-            return IndexStats.builder()
-                    .totalDocuments(reader.numDocs())
-                    .deletedDocuments(reader.numDeletedDocs())
-                    .segmentCount(reader.leaves().size())
-                    .version(1) // TODO: update version
-                    .lastCommit(LocalDateTime.now())
-                    .lastOptimization(lastOptimization)
-                    .optimized(true)
-                    .health(IndexStats.IndexHealth.HEALTHY)
-                    .build();
+        try {
+            IndexSearcher searcher = indexManager.acquireSearcher();
+            try {
+                IndexReader reader = searcher.getIndexReader();
+                return IndexStats.builder()
+                        .totalDocuments(reader.numDocs())
+                        .deletedDocuments(reader.numDeletedDocs())
+                        .segmentCount(reader.leaves().size())
+                        .version(1) // TODO: update version
+                        .lastCommit(indexManager.getLastCommit())
+                        .lastOptimization(lastOptimization)
+                        .optimized(true)
+                        .health(IndexStats.IndexHealth.HEALTHY)
+                        .build();
+            } finally {
+                indexManager.releaseSearcher(searcher);
+            }
         } catch (IOException e) {
             log.error("Failed to get index stats", e);
             throw new RuntimeException("Failed to get index stats", e);
         }
     }
 
+    @Override
+    public QueryCacheStats getQueryCacheStats() {
+        return indexManager.getQueryCacheStats();
+    }
+
+    @Override
+    public CacheStats getQueryPlanCacheStats() {
+        return queryCompiler.getPlanCacheStats();
+    }
+
+    @Override
+    public CacheStats getResultCacheStats() {
+        return resultCache.getStats();
+    }
+
     @Override
     public void optimizeIndex() {
-        try (IndexWriter writer = createIndexWriter()) {
-            writer.forceMerge(1);
-            writer.commit();
+        try {
+            indexManager.getWriter().forceMerge(1);
+            indexManager.commit();
             indexOptimizations.incrementAndGet();
             lastOptimization = LocalDateTime.now();
             log.info("Optimized index for entity type: {}", entityType);
@@ -309,30 +556,125 @@ public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEng
 
     @Override
     public boolean isHealthy() {
-        try (IndexReader reader = DirectoryReader.open(directory)) {
-            return reader.numDocs() >= 0;
+        if (!indexManager.isOpen()) {
+            return false;
+        }
+
+        try {
+            IndexSearcher searcher = indexManager.acquireSearcher();
+            try {
+                return searcher.getIndexReader().numDocs() >= 0;
+            } finally {
+                indexManager.releaseSearcher(searcher);
+            }
         } catch (IOException e) {
             log.error("Index health check failed", e);
             return false;
         }
     }
 
+    @Override
+    public void close() {
+        // Let in-flight async operations finish before the index goes away
+        asyncExecutor.close();
+        ingestPipeline.close();
+        try {
+            indexManager.close();
+            log.info("LuceneSearchEngine closed for entity type: {}", entityType);
+        } catch (IOException e) {
+            log.error("Failed to close index for entity type: {}", entityType, e);
+            throw new RuntimeException("Failed to close index", e);
+        }
+    }
+
     // Private helper methods
 
-    private void createIndex() throws IOException {
-        try (IndexWriter writer = createIndexWriter()) {
-            writer.commit();
-            log.info("Created new index for entity type: {}", entityType);
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> resolveEntityClass(PostgresSearchConfig config) {
+        // Without it results could only be decoded into untyped maps
+        if (config.getEntityClass() == null) {
+            throw new IllegalArgumentException("No entity class configured for entity type: "
+                    + config.getEntityType());
+        }
+        return (Class<T>) config.getEntityClass();
+    }
+
+    /**
+     * Apply the write options after a bulk run that started on the given writer
+     */
+    private void afterBulkWrite(IndexWriter writer, BulkIngestPipeline.Outcome outcome, WriteOptions options)
+            throws IOException {
+        indexSwapLock.readLock().lock();
+        try {
+            // After a swap the run's sequence numbers mean nothing to the new writer, which
+            // already holds every batch through the rebuild catch-up
+            IndexWriter current = indexManager.getWriter();
+            long sequence = current == writer ? outcome.sequence() : current.getMaxCompletedSequenceNumber();
+            indexManager.afterWrite(sequence, outcome.processed(), options);
+        } finally {
+            indexSwapLock.readLock().unlock();
         }
     }
 
-    private IndexWriter createIndexWriter() throws IOException {
-        IndexWriterConfig config = new IndexWriterConfig(analyzer);
-        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
-        return new IndexWriter(directory, config);
+    private long addToIndex(List<Document> docs) throws IOException {
+        long generation = indexManager.getWriter().addDocuments(docs);
+        for (Document doc : docs) {
+            trackRebuildChange(doc.get("id"), doc);
+        }
+        return generation;
+    }
+
+    /**
+     * Remember the latest document written for an entity while a rebuild runs
+     *
+     * @param doc the document, or null when the entity was removed
+     */
+    private void trackRebuildChange(String entityId, Document doc) {
+        Map<String, Optional<Document>> changes = rebuildChanges;
+        if (changes != null) {
+            changes.put(entityId, Optional.ofNullable(doc));
+        }
     }
 
-    private Document createDocument(T entity) {
+    /**
+     * Replay documents written since the rebuild started into the new index
+     */
+    private void applyRebuildChanges(IndexWriter writer) throws IOException {
+        Map<String, Optional<Document>> changes = rebuildChanges;
+        for (String entityId : changes.keySet()) {
+            Optional<Document> doc = changes.remove(entityId);
+            if (doc == null) {
+                continue;
+            }
+            Term idTerm = new Term("id", entityId);
+            if (doc.isPresent()) {
+                writer.updateDocument(idTerm, doc.get());
+            } else {
+                writer.deleteDocuments(idTerm);
+            }
+        }
+    }
+
+    private IndexWriterConfig rebuildWriterConfig() {
+        return new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE)
+                .setRAMBufferSizeMB(REBUILD_RAM_BUFFER_MB);
+    }
+
+    /**
+     * Remove an index version that failed before it was swapped in
+     */
+    private void discardIndexVersion(Path path, Exception failure) {
+        if (path != null && !path.equals(indexManager.getIndexPath())) {
+            try {
+                IOUtils.rm(path);
+            } catch (IOException cleanup) {
+                failure.addSuppressed(cleanup);
+            }
+        }
+    }
+
+    private Document createDocument(T entity) throws IOException {
         Document doc = new Document();
         doc.add(new StringField("id", entity.getId(), Field.Store.YES));
         doc.add(new StringField("entityType", entity.getEntityType(), Field.Store.YES));
@@ -346,54 +688,41 @@ public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEng
         for (Map.Entry<String, String> field : entity.getSearchableFields().entrySet()) {
             doc.add(new TextField(field.getKey(), field.getValue(), Field.Store.YES));
         }
+        queryCompiler.addSearchableFields(entity.getSearchableFields().keySet());
 
-        return doc;
-    }
+        // Non-scoring filter fields
+        FilterCompiler.index(doc, entity.getFilterableFields());
 
-    private Query buildQuery(String queryString, SearchOptions options) {
-        // Basic implementation - can be enhanced with more sophisticated query building
-        BooleanQuery.Builder queryBuilder = new BooleanQuery.Builder();
+        storedFieldsHydrator.addSource(doc, entity);
 
-        // Main content query
-        Query contentQuery = new FuzzyQuery(new Term("content", queryString.toLowerCase()));
-        contentQuery = new BoostQuery(contentQuery, options.getExactMatchBoost());
-        queryBuilder.add(contentQuery, BooleanClause.Occur.SHOULD);
-
-        // Add field-specific queries if specified
-        if (options.getSearchFields() != null) {
-            for (String field : options.getSearchFields()) {
-                Query fieldQuery = new FuzzyQuery(new Term(field, queryString.toLowerCase()));
-                queryBuilder.add(fieldQuery, BooleanClause.Occur.SHOULD);
-            }
-        }
-
-        return queryBuilder.build();
+        return doc;
     }
 
-//    private Filter buildFilter(Map<String, Object> filters) {
-//        // Implementation for building Lucene filters from the filter map
-//        return null;
-//    }
-
     private SearchResponse<T> executeSearch(Query query, SearchOptions options) throws IOException {
-        try (IndexReader reader = DirectoryReader.open(directory)) {
-            IndexSearcher searcher = new IndexSearcher(reader);
+        IndexSearcher searcher = indexManager.acquireSearcher(options);
+        try {
+            SearchPage page = SearchPage.collect(searcher, query, options, maxResultWindow);
+            if (page.getNextCursor() != null) {
+                // The next page must see the same snapshot
+                indexManager.keepSearcher(searcher);
+            }
 
-            TopDocs topDocs = searcher.search(query, options.getMaxResults());
+            StoredFields storedFields = searcher.storedFields();
 
             List<SearchResult<T>> results = new ArrayList<>();
-            for (int i = 0; i < topDocs.scoreDocs.length; i++) {
-                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
-                Document doc = searcher.storedFields().document(scoreDoc.doc);
+            for (int i = 0; i < page.getHits().length; i++) {
+                ScoreDoc scoreDoc = page.getHits()[i];
+                int position = page.getStart() + i;
+                Document doc = storedFieldsHydrator.load(storedFields, scoreDoc.doc, options);
 
-                // Create search result (entity reconstruction would be needed here)
                 SearchResult<T> result = SearchResult.<T>builder()
+                        .entity(storedFieldsHydrator.hydrate(doc, options))
                         .score(scoreDoc.score)
-                        .rank(i + 1)
-                        .inTop10(i < 10)
-                        .inTop5(i < 5)
-                        .inTop3(i < 3)
-                        .isFirst(i == 0)
+                        .rank(position + 1)
+                        .inTop10(position < 10)
+                        .inTop5(position < 5)
+                        .inTop3(position < 3)
+                        .isFirst(position == 0)
                         .timestamp(LocalDateTime.now())
                         .build();
 
@@ -402,8 +731,12 @@ public class LuceneSearchEngine<T extends SearchableEntity> implements SearchEng
 
             return SearchResponse.<T>builder()
                     .results(results)
-                    .totalHits(topDocs.totalHits.value())
+                    .totalHits(page.getTotalHits())
+                    .nextCursor(page.getNextCursor())
+                    .facets(page.getFacetHits() != null ? FacetCounter.count(page.getFacetHits(), options) : null)
                     .build();
+        } finally {
+            indexManager.releaseSearcher(searcher);
         }
     }
 
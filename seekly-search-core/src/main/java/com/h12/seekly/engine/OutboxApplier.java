@@ -0,0 +1,358 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.WriteOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Applies a PostgreSQL outbox to the Lucene index.
+ * Every entity write records the entity ID in the outbox table in the same
+ * transaction as the row itself, so PostgreSQL alone decides what happened.
+ * A single applier thread reads pending outbox rows in sequence order, joins
+ * them to the documents table and applies the current state of each entity to
+ * the writer (update if the row exists, delete otherwise). Commits follow the
+ * index's commit policy like any other write; applied rows are remembered with
+ * the writer sequence number of their last change and deleted by a later pass
+ * once a commit covers it. Applying an entity is idempotent, so after a crash
+ * at any point the rows still in the outbox are simply replayed on startup.
+ * Rows are never skipped by sequence: a transaction that commits late can
+ * carry a lower sequence than rows already applied.
+ */
+@Slf4j
+public class OutboxApplier implements Closeable {
+
+    private final DataSource dataSource;
+    private final LuceneIndexManager indexManager;
+    private final BulkIngestPipeline.Stage<ResultSet, Document> documentBuilder;
+    private final Lock writeLock;
+    private final String outboxTable;
+    private final String documentsTable;
+    private final String entityType;
+    private final int batchSize;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean passQueued = new AtomicBoolean(false);
+
+    // Guarded by this
+    private IndexWriter lastWriter;
+    private long lastGeneration = -1;
+    private final Deque<Applied> uncommitted = new ArrayDeque<>();
+
+    /**
+     * @param documentBuilder builds the Lucene document from a documents table row
+     * @param writeLock       held while writing, so the index is not swapped mid-pass
+     */
+    public OutboxApplier(DataSource dataSource, LuceneIndexManager indexManager,
+            BulkIngestPipeline.Stage<ResultSet, Document> documentBuilder, Lock writeLock, String outboxTable,
+            String documentsTable, String entityType, int batchSize, long pollIntervalMs) {
+        this.dataSource = dataSource;
+        this.indexManager = indexManager;
+        this.documentBuilder = documentBuilder;
+        this.writeLock = writeLock;
+        this.outboxTable = outboxTable;
+        this.documentsTable = documentsTable;
+        this.entityType = entityType;
+        this.batchSize = Math.max(1, batchSize);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "seekly-outbox-" + entityType);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // The first pass replays whatever a previous run left in the outbox
+        log.info("Replaying pending outbox entries for entity type: {}", entityType);
+        executor.scheduleWithFixedDelay(this::applyQuietly, 0, Math.max(1, pollIntervalMs), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * DDL of the outbox table
+     */
+    public static String createTableSql(String outboxTable) {
+        return """
+                CREATE TABLE IF NOT EXISTS %s (
+                    seq BIGSERIAL PRIMARY KEY,
+                    entity_id VARCHAR(255) NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """.formatted(outboxTable);
+    }
+
+    /**
+     * Record changed entities on the caller's connection, inside its transaction
+     *
+     * @return highest outbox sequence recorded, or -1 when there were no entities
+     */
+    public long record(Connection conn, Collection<String> entityIds) throws SQLException {
+        if (entityIds.isEmpty()) {
+            return -1;
+        }
+
+        String sql = """
+                WITH recorded AS (
+                    INSERT INTO %s (entity_id) SELECT unnest(?::varchar[]) RETURNING seq
+                )
+                SELECT max(seq) FROM recorded
+                """.formatted(outboxTable);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Array ids = conn.createArrayOf("varchar", entityIds.toArray());
+            try {
+                stmt.setArray(1, ids);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            } finally {
+                ids.free();
+            }
+        }
+    }
+
+    /**
+     * Apply the caller's visibility/durability options after a write recorded up
+     * to the given outbox sequence; without them the change is applied by the
+     * background thread shortly after
+     */
+    public void afterWrite(long sequence, WriteOptions options) throws SQLException, IOException {
+        if (sequence < 0) {
+            return;
+        }
+        if (!options.isWaitForVisibility() && !options.isWaitForCommit()) {
+            wakeUp();
+            return;
+        }
+
+        long generation = awaitApplied(sequence);
+        if (options.isWaitForCommit()) {
+            indexManager.commit();
+        }
+        if (options.isWaitForVisibility()) {
+            indexManager.waitForGeneration(generation);
+        }
+    }
+
+    /**
+     * Stop applying; entries still pending are replayed on the next start
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Run passes until one covers the given sequence
+     *
+     * @return writer sequence number of the last applied change
+     */
+    private long awaitApplied(long sequence) throws SQLException, IOException {
+        while (true) {
+            // The caller's entry was visible before this pass started, and passes read in
+            // sequence order, so it is applied once a pass drains the outbox or passes it
+            Pass pass = applyPass();
+            if (pass.drained() || pass.maxSequence() >= sequence) {
+                return pass.generation();
+            }
+        }
+    }
+
+    private void wakeUp() {
+        if (passQueued.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    passQueued.set(false);
+                    applyQuietly();
+                });
+            } catch (RuntimeException e) {
+                // Closing; pending entries are replayed on the next start
+                passQueued.set(false);
+            }
+        }
+    }
+
+    private void applyQuietly() {
+        try {
+            Pass pass;
+            do {
+                pass = applyPass();
+            } while (!pass.drained() && !executor.isShutdown());
+        } catch (Exception e) {
+            log.error("Failed to apply outbox for entity type: {}", entityType, e);
+        }
+    }
+
+    /**
+     * Remove entries made durable since the last pass and apply up to one batch
+     * of the rest
+     */
+    private Pass applyPass() throws SQLException, IOException {
+        writeLock.lock();
+        try {
+            return applyBatch();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private synchronized Pass applyBatch() throws SQLException, IOException {
+        // Entries applied but not yet committed are excluded rather than applied again
+        String selectSql = """
+                SELECT o.seq, o.entity_id, d.entity_data, d.entity_data_bin
+                FROM %s o LEFT JOIN %s d ON d.id = o.entity_id
+                WHERE NOT (o.seq = ANY(?))
+                ORDER BY o.seq
+                LIMIT ?
+                """.formatted(outboxTable, documentsTable);
+
+        IndexWriter writer = indexManager.getWriter();
+        if (writer != lastWriter) {
+            // Generations of a swapped-out writer mean nothing to the new one, and
+            // entries it has not committed are applied again to the new writer
+            lastWriter = writer;
+            lastGeneration = -1;
+            uncommitted.clear();
+        }
+        List<Long> sequences = new ArrayList<>();
+        long maxSequence = -1;
+
+        try (Connection conn = dataSource.getConnection()) {
+            deleteCommitted(conn);
+
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                Array excluded = conn.createArrayOf("bigint", uncommittedSequences().toArray());
+                stmt.setArray(1, excluded);
+                stmt.setInt(2, batchSize);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // Every row carries the entity's current state, so repeats within a pass are skipped
+                    Set<String> applied = new HashSet<>();
+                    while (rs.next()) {
+                        long sequence = rs.getLong("seq");
+                        sequences.add(sequence);
+                        maxSequence = Math.max(maxSequence, sequence);
+
+                        String entityId = rs.getString("entity_id");
+                        if (!applied.add(entityId)) {
+                            continue;
+                        }
+                        Term idTerm = new Term("id", entityId);
+                        lastGeneration = rs.getString("entity_data") == null
+                                ? writer.deleteDocuments(idTerm)
+                                : writer.updateDocument(idTerm, buildDocument(rs));
+                    }
+                } finally {
+                    excluded.free();
+                }
+            }
+        }
+
+        if (sequences.isEmpty()) {
+            return new Pass(-1, lastGeneration, true);
+        }
+
+        // Entries are removed only once a commit covers their changes
+        uncommitted.add(new Applied(lastGeneration, sequences));
+        indexManager.afterWrite(lastGeneration, sequences.size(), WriteOptions.builder().build());
+
+        log.debug("Applied {} outbox entries through sequence {} for entity type: {}",
+                sequences.size(), maxSequence, entityType);
+        return new Pass(maxSequence, lastGeneration, sequences.size() < batchSize);
+    }
+
+    /**
+     * Delete the entries whose changes the last commit of the writer covers
+     */
+    private void deleteCommitted(Connection conn) throws SQLException {
+        long committed = indexManager.getCommittedGeneration();
+        List<Long> sequences = new ArrayList<>();
+        int passes = 0;
+        for (Applied applied : uncommitted) {
+            if (applied.generation() > committed) {
+                break;
+            }
+            sequences.addAll(applied.sequences());
+            passes++;
+        }
+        if (sequences.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + outboxTable + " WHERE seq = ANY(?)")) {
+            Array applied = conn.createArrayOf("bigint", sequences.toArray());
+            try {
+                stmt.setArray(1, applied);
+                stmt.executeUpdate();
+            } finally {
+                applied.free();
+            }
+        }
+        for (int i = 0; i < passes; i++) {
+            uncommitted.poll();
+        }
+    }
+
+    private List<Long> uncommittedSequences() {
+        List<Long> sequences = new ArrayList<>();
+        for (Applied applied : uncommitted) {
+            sequences.addAll(applied.sequences());
+        }
+        return sequences;
+    }
+
+    private Document buildDocument(ResultSet rs) throws IOException {
+        try {
+            return documentBuilder.apply(rs);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to build document from outbox entry", e);
+        }
+    }
+
+    /**
+     * Outcome of one pass
+     *
+     * @param maxSequence highest sequence applied, or -1 when the outbox was empty
+     * @param generation  writer sequence number of the last applied change
+     * @param drained     whether the pass saw every pending entry
+     */
+    private record Pass(long maxSequence, long generation, boolean drained) {
+    }
+
+    /**
+     * Entries applied in one pass and awaiting a commit
+     *
+     * @param generation writer sequence number of the last change of the pass
+     * @param sequences  outbox sequences of the entries
+     */
+    private record Applied(long generation, List<Long> sequences) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.h12.seekly.engine;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * Blocking iterator over the items of a {@link Flow.Publisher}.
+ * Demand is signalled only for items the buffer can hold and is replenished
+ * as the consumer takes them, so a fast publisher never runs ahead of
+ * ingestion by more than {@code bufferSize} items.
+ */
+public class PublisherIterator<T> implements Iterator<T>, Flow.Subscriber<T> {
+
+    private static final Object COMPLETE = new Object();
+
+    private final int bufferSize;
+    private final BlockingQueue<Object> buffer;
+    private volatile Flow.Subscription subscription;
+    private Object next;
+    private boolean finished;
+
+    public PublisherIterator(int bufferSize) {
+        this.bufferSize = Math.max(1, bufferSize);
+        // Terminal signals need a slot even when the buffer is full
+        this.buffer = new ArrayBlockingQueue<>(this.bufferSize + 1);
+    }
+
+    /**
+     * Subscribe to the publisher before returning, so no item published from
+     * then on is missed, and hand the iterator to the consumer on a virtual
+     * thread; the subscription is cancelled if the consumer fails
+     */
+    public static <T, R> CompletableFuture<R> consume(Flow.Publisher<T> publisher, int bufferSize,
+            String threadName, Function<Iterator<T>, R> consumer) {
+        PublisherIterator<T> iterator = new PublisherIterator<>(bufferSize);
+        publisher.subscribe(iterator);
+
+        CompletableFuture<R> future = new CompletableFuture<>();
+        Thread.ofVirtual().name(threadName).start(() -> {
+            try {
+                future.complete(consumer.apply(iterator));
+            } catch (Throwable t) {
+                iterator.cancel();
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(bufferSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        buffer.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        buffer.add(new Failure(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        buffer.add(COMPLETE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = buffer.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the publisher", e);
+            }
+            if (next == COMPLETE) {
+                finished = true;
+                next = null;
+            } else if (next instanceof Failure failure) {
+                finished = true;
+                next = null;
+                throw new IllegalStateException("Publisher failed", failure.cause());
+            } else {
+                subscription.request(1);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T item = (T) next;
+        next = null;
+        return item;
+    }
+
+    /**
+     * Stop receiving items from the publisher
+     */
+    public void cancel() {
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    private record Failure(Throwable cause) {
+    }
+}
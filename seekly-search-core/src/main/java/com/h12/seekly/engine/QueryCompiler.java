@@ -0,0 +1,218 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.CacheStats;
+import com.h12.seekly.core.SearchOptions;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.CombinedFieldQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.WildcardQuery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles query text into a Lucene query.
+ * The text is run through the engine's analyzer and every resulting term
+ * becomes its own clause over the searched fields, so multi-word queries match
+ * documents containing any of the words and rank those containing more of them
+ * higher. By default only exact term queries are built; fuzzy variants,
+ * wildcard tokens and the phrase clause are added only when the search options
+ * ask for them.
+ * In combined-field mode the searchable fields seen at index time are searched
+ * by default and each term is scored with a {@link CombinedFieldQuery}, which
+ * sums weighted term frequencies and field lengths across the fields before
+ * applying BM25 (BM25F), giving catch-all-field relevance without indexing the
+ * text twice. Otherwise every field is scored on its own and the scores are
+ * summed, with the field weight applied as a boost.
+ */
+public class QueryCompiler {
+
+    /**
+     * Field holding {@link com.h12.seekly.core.SearchableEntity#getSearchableContent()}
+     */
+    public static final String CONTENT_FIELD = "content";
+
+    // Fuzzy variants must share the first character, which keeps automaton expansion small
+    private static final int FUZZY_PREFIX_LENGTH = 1;
+
+    // Built-in fields that are never searched as text
+    private static final Set<String> RESERVED_FIELDS = Set.of("id", "entityType", CONTENT_FIELD);
+
+    private final Analyzer analyzer;
+    private final boolean combinedFieldScoring;
+    private final Map<String, Float> fieldWeights;
+    private final Set<String> searchableFields = ConcurrentHashMap.newKeySet();
+
+    private final QueryPlanCache planCache;
+
+    public QueryCompiler(Analyzer analyzer) {
+        this(analyzer, false, Map.of(), 0);
+    }
+
+    public QueryCompiler(Analyzer analyzer, boolean combinedFieldScoring, Map<String, Float> fieldWeights,
+            int planCacheSize) {
+        this.analyzer = analyzer;
+        this.planCache = new QueryPlanCache(planCacheSize);
+        this.combinedFieldScoring = combinedFieldScoring;
+        this.fieldWeights = fieldWeights != null ? Map.copyOf(fieldWeights) : Map.of();
+
+        if (combinedFieldScoring) {
+            this.fieldWeights.forEach((field, weight) -> {
+                if (weight < 1f) {
+                    throw new IllegalArgumentException("Weight of search field " + field
+                            + " must be at least 1 for combined-field scoring, got: " + weight);
+                }
+            });
+        }
+    }
+
+    /**
+     * Register searchable field names so combined-field queries cover them by default
+     */
+    public void addSearchableFields(Collection<String> fields) {
+        for (String field : fields) {
+            if (!RESERVED_FIELDS.contains(field) && !FilterCompiler.isFilterField(field)
+                    && !searchableFields.contains(field) && searchableFields.add(field) && combinedFieldScoring) {
+                // Cached plans were compiled against the previous default field set
+                planCache.clear();
+            }
+        }
+    }
+
+    /**
+     * Compile query text for the given options, reusing the cached plan of an
+     * equivalent earlier query
+     */
+    public Query compile(String queryText, SearchOptions options) {
+        return planCache.get(queryText, options, () -> build(queryText, options));
+    }
+
+    /**
+     * Hit, miss and eviction statistics of the query plan cache
+     */
+    public CacheStats getPlanCacheStats() {
+        return planCache.getStats();
+    }
+
+    private Query build(String queryText, SearchOptions options) {
+        if (queryText == null || queryText.isBlank()) {
+            return new MatchAllDocsQuery();
+        }
+
+        // The content field is always searched, next to the requested searchable fields
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add(CONTENT_FIELD);
+        if (options.getSearchFields() != null && !options.getSearchFields().isEmpty()) {
+            fields.addAll(options.getSearchFields());
+        } else if (combinedFieldScoring) {
+            fields.addAll(new TreeSet<>(searchableFields));
+        }
+
+        // Wildcard tokens bypass analysis, which would strip the wildcard characters
+        StringBuilder text = new StringBuilder();
+        List<String> wildcards = new ArrayList<>();
+        for (String token : queryText.trim().split("\\s+")) {
+            if (options.isWildcardMatching() && (token.indexOf('*') >= 0 || token.indexOf('?') >= 0)) {
+                wildcards.add(token.toLowerCase(Locale.ROOT));
+            } else {
+                text.append(token).append(' ');
+            }
+        }
+        List<String> terms = analyze(text.toString());
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (String term : terms) {
+            builder.add(termQuery(fields, term, options), BooleanClause.Occur.SHOULD);
+        }
+        for (String wildcard : wildcards) {
+            BooleanQuery.Builder wildcardQuery = new BooleanQuery.Builder();
+            for (String field : fields) {
+                wildcardQuery.add(boost(new WildcardQuery(new Term(field, wildcard)), weight(field)),
+                        BooleanClause.Occur.SHOULD);
+            }
+            builder.add(wildcardQuery.build(), BooleanClause.Occur.SHOULD);
+        }
+
+        // Reward documents containing the words in order
+        if (options.isPhraseMatching() && terms.size() > 1) {
+            for (String field : fields) {
+                Query phrase = new PhraseQuery(field, terms.toArray(new String[0]));
+                builder.add(boost(phrase, options.getPhraseMatchBoost() * weight(field)),
+                        BooleanClause.Occur.SHOULD);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Exact matches of one term in any of the fields, plus fuzzy variants when enabled
+     */
+    private Query termQuery(Set<String> fields, String term, SearchOptions options) {
+        int fuzzyDistance = Math.max(0, Math.min(options.getFuzzyDistance(), FuzzyQuery.defaultMaxEdits));
+        boolean fuzzy = options.isFuzzyMatching() && fuzzyDistance > 0 && term.length() > fuzzyDistance;
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        if (combinedFieldScoring) {
+            CombinedFieldQuery.Builder combined = new CombinedFieldQuery.Builder(term);
+            for (String field : fields) {
+                combined.addField(field, weight(field));
+            }
+            builder.add(boost(combined.build(), options.getExactMatchBoost()), BooleanClause.Occur.SHOULD);
+        }
+        for (String field : fields) {
+            Term fieldTerm = new Term(field, term);
+            if (!combinedFieldScoring) {
+                builder.add(boost(new TermQuery(fieldTerm), options.getExactMatchBoost() * weight(field)),
+                        BooleanClause.Occur.SHOULD);
+            }
+            if (fuzzy) {
+                builder.add(boost(new FuzzyQuery(fieldTerm, fuzzyDistance, FUZZY_PREFIX_LENGTH), weight(field)),
+                        BooleanClause.Occur.SHOULD);
+            }
+        }
+        return builder.build();
+    }
+
+    private float weight(String field) {
+        return fieldWeights.getOrDefault(field, 1f);
+    }
+
+    private static Query boost(Query query, float boost) {
+        return boost == 1f ? query : new BoostQuery(query, boost);
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(CONTENT_FIELD, text)) {
+            CharTermAttribute termAttribute = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(termAttribute.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to analyze query: " + text, e);
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,145 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.CacheStats;
+import com.h12.seekly.core.SearchOptions;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * LRU cache of compiled queries keyed by normalized query text and the search
+ * options that affect compilation.
+ * Lucene queries are immutable, so a cached query can be shared by concurrent
+ * searches; only analysis and query construction are saved, the rewrite
+ * against the current reader still happens per search.
+ * {@link #clear()} bumps the cache epoch, so a plan whose compilation started
+ * before the clear is returned to its caller but never stored.
+ */
+public class QueryPlanCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxSize;
+    private final Map<Key, Query> plans;
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long ramBytesUsed;
+
+    public QueryPlanCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.plans = new LinkedHashMap<>(Math.max(16, maxSize), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Query> eldest) {
+                if (size() > QueryPlanCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    ramBytesUsed -= RamUsageEstimator.sizeOf(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Return the cached query for the text and options, compiling and caching
+     * it on a miss
+     */
+    public Query get(String queryText, SearchOptions options, Supplier<Query> compiler) {
+        if (maxSize <= 0) {
+            return compiler.get();
+        }
+
+        Key key = Key.of(queryText, options);
+        synchronized (plans) {
+            Query plan = plans.get(key);
+            if (plan != null) {
+                hits.incrementAndGet();
+                return plan;
+            }
+        }
+
+        misses.incrementAndGet();
+        // Read before compiling: the compiler reads state that a clear replaces
+        long compileEpoch = epoch.get();
+        Query plan = compiler.get();
+        synchronized (plans) {
+            if (compileEpoch != epoch.get()) {
+                return plan;
+            }
+            Query previous = plans.put(key, plan);
+            ramBytesUsed += RamUsageEstimator.sizeOf(plan)
+                    - (previous != null ? RamUsageEstimator.sizeOf(previous) : 0);
+        }
+        return plan;
+    }
+
+    /**
+     * Drop all cached queries, e.g. when the set of searched fields changes
+     */
+    public void clear() {
+        synchronized (plans) {
+            epoch.incrementAndGet();
+            plans.clear();
+            ramBytesUsed = 0;
+        }
+    }
+
+    /**
+     * Hit, miss and eviction statistics
+     */
+    public CacheStats getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        int size;
+        long ramBytes;
+        synchronized (plans) {
+            size = plans.size();
+            ramBytes = ramBytesUsed;
+        }
+        return CacheStats.builder()
+                .enabled(maxSize > 0)
+                .hitCount(hitCount)
+                .missCount(misses.get())
+                .evictionCount(evictions.get())
+                .size(size)
+                .ramBytesUsed(ramBytes)
+                .hitRate(lookups > 0 ? (double) hitCount / lookups : 0)
+                .build();
+    }
+
+    /**
+     * Query text reduced to the form that compiles to the same query: trimmed,
+     * whitespace collapsed and lowercased like the analyzer does
+     */
+    static String normalize(String queryText) {
+        return queryText == null
+                ? ""
+                : WHITESPACE.matcher(queryText.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalized query text plus every option read by {@link QueryCompiler}
+     */
+    private record Key(String text, List<String> searchFields, boolean fuzzyMatching, int fuzzyDistance,
+            boolean wildcardMatching, boolean phraseMatching, float exactMatchBoost, float phraseMatchBoost) {
+
+        static Key of(String queryText, SearchOptions options) {
+            String text = normalize(queryText);
+            List<String> searchFields = options.getSearchFields() != null
+                    ? List.copyOf(options.getSearchFields())
+                    : List.of();
+            return new Key(text, searchFields, options.isFuzzyMatching(), options.getFuzzyDistance(),
+                    options.isWildcardMatching(), options.isPhraseMatching(), options.getExactMatchBoost(),
+                    options.getPhraseMatchBoost());
+        }
+    }
+}
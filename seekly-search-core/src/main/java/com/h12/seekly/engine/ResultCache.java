@@ -0,0 +1,200 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.CacheStats;
+import com.h12.seekly.core.SearchOptions;
+import com.h12.seekly.core.SearchResponse;
+import com.h12.seekly.core.SearchResult;
+import com.h12.seekly.core.SearchableEntity;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of search responses for hot queries, keyed by normalized query
+ * text, filters and search options.
+ * Only first pages up to {@code maxResults} deep are cached, and the cache is
+ * bounded by both entry count and estimated memory. Every searcher refresh
+ * that picks up index changes bumps the cache generation and drops all
+ * entries; a response computed against an older searcher carries the
+ * generation read before the search started and is therefore never stored
+ * after the refresh.
+ */
+public class ResultCache<T extends SearchableEntity> {
+
+    // Rough per-result overhead of SearchResult, its list slot and boxed fields
+    private static final long RESULT_OVERHEAD_BYTES = 128;
+    private static final long RESPONSE_OVERHEAD_BYTES = 512;
+
+    private final int maxEntries;
+    private final long maxRamBytes;
+    private final int maxResults;
+    private final Map<Key, Entry<T>> responses = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long ramBytesUsed;
+
+    public ResultCache(int maxEntries, long maxRamBytes, int maxResults) {
+        this.maxEntries = maxEntries;
+        this.maxRamBytes = maxRamBytes;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Whether responses for these options may be cached
+     */
+    public boolean isCacheable(SearchOptions options) {
+        return maxEntries > 0 && options.getCursor() == null
+                && options.getOffset() + options.getMaxResults() <= maxResults;
+    }
+
+    /**
+     * Current generation; read it before acquiring the searcher and pass it to
+     * {@link #put}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Copy of the cached response, or null on a miss
+     */
+    public SearchResponse<T> get(String query, Map<String, Object> filters, SearchOptions options) {
+        if (!isCacheable(options)) {
+            return null;
+        }
+
+        Key key = Key.of(query, filters, options);
+        synchronized (responses) {
+            Entry<T> entry = responses.get(key);
+            if (entry != null) {
+                hits.incrementAndGet();
+                return entry.response().toBuilder()
+                        .results(new ArrayList<>(entry.response().getResults()))
+                        .build();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Cache a successful response computed by a search that started at the
+     * given generation
+     */
+    public void put(String query, Map<String, Object> filters, SearchOptions options, SearchResponse<T> response,
+            long searchGeneration) {
+        if (!isCacheable(options) || !response.isSuccess()) {
+            return;
+        }
+
+        Key key = Key.of(query, filters, options);
+        SearchResponse<T> snapshot = response.toBuilder()
+                .results(List.copyOf(response.getResults()))
+                .build();
+        long bytes = estimateRamBytes(snapshot);
+        if (bytes > maxRamBytes) {
+            return;
+        }
+
+        synchronized (responses) {
+            // A refresh happened while this search ran; its results may be stale
+            if (searchGeneration != generation.get()) {
+                return;
+            }
+
+            Entry<T> previous = responses.put(key, new Entry<>(snapshot, bytes));
+            ramBytesUsed += bytes - (previous != null ? previous.ramBytes() : 0);
+
+            var eldest = responses.values().iterator();
+            while ((responses.size() > maxEntries || ramBytesUsed > maxRamBytes) && eldest.hasNext()) {
+                ramBytesUsed -= eldest.next().ramBytes();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop all entries and reject responses of searches already in flight
+     */
+    public void invalidate() {
+        synchronized (responses) {
+            generation.incrementAndGet();
+            responses.clear();
+            ramBytesUsed = 0;
+        }
+    }
+
+    /**
+     * Hit, miss and eviction statistics
+     */
+    public CacheStats getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        int size;
+        long ramBytes;
+        synchronized (responses) {
+            size = responses.size();
+            ramBytes = ramBytesUsed;
+        }
+        return CacheStats.builder()
+                .enabled(maxEntries > 0)
+                .hitCount(hitCount)
+                .missCount(misses.get())
+                .evictionCount(evictions.get())
+                .size(size)
+                .ramBytesUsed(ramBytes)
+                .hitRate(lookups > 0 ? (double) hitCount / lookups : 0)
+                .build();
+    }
+
+    /**
+     * Estimate from the entities' searchable text, which dominates their size
+     */
+    private long estimateRamBytes(SearchResponse<T> response) {
+        long bytes = RESPONSE_OVERHEAD_BYTES;
+        for (SearchResult<T> result : response.getResults()) {
+            bytes += RESULT_OVERHEAD_BYTES;
+            T entity = result.getEntity();
+            if (entity != null) {
+                bytes += RamUsageEstimator.sizeOf(entity.getSearchableContent());
+                for (Map.Entry<String, String> field : entity.getSearchableFields().entrySet()) {
+                    bytes += RamUsageEstimator.sizeOf(field.getKey()) + RamUsageEstimator.sizeOf(field.getValue());
+                }
+            }
+            if (result.getHighlights() != null) {
+                for (String highlight : result.getHighlights()) {
+                    bytes += RamUsageEstimator.sizeOf(highlight);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private record Entry<T extends SearchableEntity>(SearchResponse<T> response, long ramBytes) {
+    }
+
+    /**
+     * Normalized query text, filters and the options that affect the response
+     */
+    private record Key(String query, Map<String, Object> filters, SearchOptions options) {
+
+        static Key of(String query, Map<String, Object> filters, SearchOptions options) {
+            // Per-user tracking fields do not change the results
+            SearchOptions resultOptions = options.toBuilder()
+                    .sessionId(null)
+                    .userId(null)
+                    .trackMetrics(true)
+                    .build();
+            return new Key(QueryPlanCache.normalize(query),
+                    filters != null ? new HashMap<>(filters) : Map.of(), resultOptions);
+        }
+    }
+}
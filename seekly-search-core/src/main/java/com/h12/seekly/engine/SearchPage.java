@@ -0,0 +1,177 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.SearchOptions;
+import lombok.Getter;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * One page of hits for a query.
+ * Offset paging collects offset + maxResults hits and is capped by the result
+ * window. Cursor paging resumes after the last hit of the previous page with
+ * {@link IndexSearcher#searchAfter}, so any page costs a queue of maxResults
+ * entries no matter how deep it is.
+ * A cursor names its last hit by score and doc ID, which only identify the hit
+ * in the index version that produced them: a refresh or merge renumbers
+ * documents. The cursor therefore carries the reader version; the engine
+ * collects the next page from the searcher kept under that version by
+ * {@link LuceneIndexManager#acquireSearcher(SearchOptions)}, and a cursor
+ * checked against any other searcher is rejected.
+ * When facets are requested the matching documents are gathered for facet
+ * counting in the same pass that collects the top hits.
+ */
+@Getter
+public class SearchPage {
+
+    // reader version (8 bytes) + score (4 bytes) + doc id (4 bytes) + position (4 bytes)
+    private static final int CURSOR_BYTES = 20;
+
+    /**
+     * Hits of this page in rank order
+     */
+    private final ScoreDoc[] hits;
+
+    /**
+     * Total number of matching documents
+     */
+    private final long totalHits;
+
+    /**
+     * Zero-based position of the first hit of this page in the full result list
+     */
+    private final int start;
+
+    /**
+     * Cursor for the next page, null when this page is the last one
+     */
+    private final String nextCursor;
+
+    /**
+     * All matching documents for facet counting, null when no facets were requested
+     */
+    private final FacetsCollector facetHits;
+
+    private SearchPage(ScoreDoc[] hits, TotalHits totalHits, int start, int pageSize, FacetsCollector facetHits,
+            long readerVersion) {
+        this.hits = hits;
+        this.facetHits = facetHits;
+        this.totalHits = totalHits.value();
+        this.start = start;
+
+        // A lower-bound hit count cannot rule out further pages
+        boolean more = totalHits.relation() == TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO
+                || start + hits.length < totalHits.value();
+        this.nextCursor = hits.length > 0 && hits.length == pageSize && more
+                ? encodeCursor(readerVersion, hits[hits.length - 1], start + hits.length)
+                : null;
+    }
+
+    /**
+     * Collect the page selected by the cursor or, without one, by the offset of
+     * the given options
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued
+     *                                  by another version of the index
+     */
+    public static SearchPage collect(IndexSearcher searcher, Query query, SearchOptions options,
+            int maxResultWindow) throws IOException {
+        int pageSize = options.getMaxResults();
+        boolean facets = options.isIncludeFacets() && options.getFacetFields() != null
+                && !options.getFacetFields().isEmpty();
+
+        long readerVersion = readerVersion(searcher.getIndexReader());
+
+        if (options.getCursor() != null) {
+            ByteBuffer cursor = decodeCursor(options.getCursor());
+            if (cursor.getLong(0) != readerVersion) {
+                // Doc IDs and scores of another index version would skip or repeat hits
+                throw new IllegalArgumentException("Search cursor has expired because the index changed; "
+                        + "restart from the first page");
+            }
+            ScoreDoc after = new ScoreDoc(cursor.getInt(12), cursor.getFloat(8));
+            int start = cursor.getInt(16);
+            if (facets) {
+                FacetsCollectorManager.FacetsResult result = FacetsCollectorManager.searchAfter(
+                        searcher, after, query, pageSize, new FacetsCollectorManager());
+                TopDocs topDocs = result.topDocs();
+                return new SearchPage(topDocs.scoreDocs, topDocs.totalHits, start, pageSize,
+                        result.facetsCollector(), readerVersion);
+            }
+            TopDocs topDocs = searcher.searchAfter(after, query, pageSize);
+            return new SearchPage(topDocs.scoreDocs, topDocs.totalHits, start, pageSize, null, readerVersion);
+        }
+
+        int offset = options.getOffset();
+        if ((long) offset + pageSize > maxResultWindow) {
+            throw new IllegalArgumentException("Result window is too large, offset + maxResults must be at most "
+                    + maxResultWindow + "; page deeper with the cursor of the previous page");
+        }
+
+        TopDocs topDocs;
+        FacetsCollector facetHits = null;
+        if (facets) {
+            FacetsCollectorManager.FacetsResult result = FacetsCollectorManager.search(
+                    searcher, query, offset + pageSize, new FacetsCollectorManager());
+            topDocs = result.topDocs();
+            facetHits = result.facetsCollector();
+        } else {
+            topDocs = searcher.search(query, offset + pageSize);
+        }
+
+        ScoreDoc[] hits = offset < topDocs.scoreDocs.length
+                ? Arrays.copyOfRange(topDocs.scoreDocs, offset, topDocs.scoreDocs.length)
+                : new ScoreDoc[0];
+        return new SearchPage(hits, topDocs.totalHits, offset, pageSize, facetHits, readerVersion);
+    }
+
+    /**
+     * Reader version the cursor was issued against
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static long cursorVersion(String cursor) {
+        return decodeCursor(cursor).getLong(0);
+    }
+
+    /**
+     * Version of the index the reader sees; readers that are not opened from a
+     * directory have no version, and their cursors are never checked against one
+     */
+    private static long readerVersion(IndexReader reader) {
+        return reader instanceof DirectoryReader directoryReader ? directoryReader.getVersion() : 0;
+    }
+
+    private static String encodeCursor(long readerVersion, ScoreDoc last, int position) {
+        ByteBuffer buffer = ByteBuffer.allocate(CURSOR_BYTES)
+                .putLong(readerVersion)
+                .putFloat(last.score)
+                .putInt(last.doc)
+                .putInt(position);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    private static ByteBuffer decodeCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor, e);
+        }
+        if (bytes.length != CURSOR_BYTES) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor);
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+}
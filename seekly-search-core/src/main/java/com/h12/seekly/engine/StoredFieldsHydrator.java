@@ -0,0 +1,94 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.codec.JacksonEntityCodec;
+import com.h12.seekly.core.SearchOptions;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rebuilds result entities from Lucene stored fields so a result page can be
+ * served without touching the database.
+ * When the serialized entity is kept in the {@value #SOURCE_FIELD} stored field
+ * it is decoded directly; otherwise the entity is mapped from the individual
+ * stored fields. {@link SearchOptions#getReturnFields()} limits both the stored
+ * fields that are loaded and the entity properties that are populated.
+ */
+public class StoredFieldsHydrator<T> {
+
+    /**
+     * Stored field holding the serialized entity
+     */
+    public static final String SOURCE_FIELD = "_source";
+
+    private final JacksonEntityCodec<T> codec;
+    private final boolean storeSource;
+
+    public StoredFieldsHydrator(Class<T> entityClass, boolean storeSource) {
+        // Smile keeps the stored source compact; Lucene compresses stored fields on top
+        this.codec = JacksonEntityCodec.smile(entityClass);
+        this.storeSource = storeSource;
+    }
+
+    /**
+     * Add the serialized entity to the document when source storing is enabled
+     */
+    public void addSource(Document doc, T entity) throws IOException {
+        if (storeSource) {
+            doc.add(new StoredField(SOURCE_FIELD, codec.encode(entity)));
+        }
+    }
+
+    /**
+     * Load the stored fields needed to hydrate a hit
+     */
+    public Document load(StoredFields storedFields, int docId, SearchOptions options) throws IOException {
+        if (options.getReturnFields() == null) {
+            return storedFields.document(docId);
+        }
+
+        Set<String> fieldsToLoad = new HashSet<>(projection(options));
+        fieldsToLoad.add("active");
+        fieldsToLoad.add(SOURCE_FIELD);
+        return storedFields.document(docId, fieldsToLoad);
+    }
+
+    /**
+     * Rebuild the entity, or its projection on the requested return fields,
+     * from a document returned by {@link #load(StoredFields, int, SearchOptions)}
+     */
+    public T hydrate(Document doc, SearchOptions options) throws IOException {
+        Set<String> projection = options.getReturnFields() != null ? projection(options) : null;
+
+        BytesRef source = doc.getBinaryValue(SOURCE_FIELD);
+        if (source != null) {
+            byte[] data = Arrays.copyOfRange(source.bytes, source.offset, source.offset + source.length);
+            return projection != null ? codec.decode(data, projection) : codec.decode(data);
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        for (IndexableField field : doc) {
+            if (projection == null || projection.contains(field.name())) {
+                Object value = field.numericValue() != null ? field.numericValue() : field.stringValue();
+                properties.putIfAbsent(field.name(), value);
+            }
+        }
+        return codec.fromProperties(properties);
+    }
+
+    private Set<String> projection(SearchOptions options) {
+        // The id is always returned so projected results stay addressable
+        Set<String> projection = new HashSet<>(options.getReturnFields());
+        projection.add("id");
+        return projection;
+    }
+}
@@ -1,19 +1,21 @@
 package com.h12.seekly.entity;
 
-import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
 import lombok.Data;
 
-import static jakarta.persistence.FetchType.LAZY;
-
+/**
+ * One fixed-size chunk of a file's content; files small enough for a single
+ * chunk (and uploads linked from {@link DbFile}) use chunk 0. The schema is
+ * created or upgraded by {@code db/sleeky_files_data.sql}
+ */
 @Entity
-@Table(name = "sleeky_files_data")
+@Table(name = "sleeky_files_data", indexes = @jakarta.persistence.Index(name = "idx_sleeky_files_data_chunk",
+        columnList = "file_id, chunk_index", unique = true))
 @Data
 public class DbFileData {
     @Id
@@ -26,8 +28,12 @@ public class DbFileData {
     @Column(name = "content_type", nullable = false)
     private String contentType;
 
-    @Lob
-    @Basic(fetch = LAZY)
+    @Column(name = "file_id")
+    private String fileId;
+
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+
     @Column(name = "data", nullable = false)
     private byte[] data;
 }
@@ -0,0 +1,6 @@
+package com.h12.seekly.enums;
+
+public enum BulkLoadMode {
+    BATCH_INSERT, // Upsert every row through a JDBC batch of INSERT ... ON CONFLICT
+    COPY // Stream rows into a staging table with COPY, then merge with a single upsert
+}
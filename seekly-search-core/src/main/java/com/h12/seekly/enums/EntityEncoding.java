@@ -0,0 +1,7 @@
+package com.h12.seekly.enums;
+
+public enum EntityEncoding {
+    JSON, // Jackson JSON in the entity_data column only
+    SMILE, // Jackson Smile copy in the entity_data_bin column
+    CBOR // Jackson CBOR copy in the entity_data_bin column
+}
@@ -0,0 +1,6 @@
+package com.h12.seekly.enums;
+
+public enum HydrationMode {
+    DATABASE, // Load result entities from PostgreSQL
+    STORED_FIELDS // Rebuild result entities from Lucene stored fields
+}
@@ -16,23 +16,44 @@ import java.io.IOException;
 public class SearchEngineFactory {
 
     /**
-     * Create a Lucene-based search engine with file-based storage.
+     * Create a Lucene-based search engine with file-based storage and custom
+     * index settings. Only the Lucene related options of the configuration are
+     * used, and the entity class must be set.
      *
-     * @param indexPath  Path to the Lucene index directory
-     * @param entityType Type of entity being indexed
-     * @param <T>        Type of searchable entity
+     * @param config Search configuration
+     * @param <T>    Type of searchable entity
+     * @return Configured search engine
+     * @throws IOException if index creation fails
+     */
+    public static <T extends SearchableEntity> SearchEngine<T> createLuceneSearchEngine(
+            PostgresSearchConfig config) throws IOException {
+
+        log.info("Creating Lucene search engine for entity type: {} at path: {}",
+                config.getEntityType(), config.getLuceneIndexPath());
+        return new LuceneSearchEngine<>(config);
+    }
+
+    /**
+     * Create a Lucene-based search engine that rebuilds results into the given
+     * entity class from stored fields.
+     *
+     * @param config      Search configuration
+     * @param entityClass Concrete entity class stored in the engine
+     * @param <T>         Type of searchable entity
      * @return Configured search engine
      * @throws IOException if index creation fails
      */
     public static <T extends SearchableEntity> SearchEngine<T> createLuceneSearchEngine(
-            String indexPath, String entityType) throws IOException {
+            PostgresSearchConfig config, Class<T> entityClass) throws IOException {
 
-        log.info("Creating Lucene search engine for entity type: {} at path: {}", entityType, indexPath);
-        return new LuceneSearchEngine<>(indexPath, entityType);
+        return createLuceneSearchEngine(config.toBuilder()
+                .entityClass(entityClass)
+                .build());
     }
 
     /**
-     * Create a PostgreSQL-based search engine with Lucene for search capabilities.
+     * Create a PostgreSQL-based search engine with Lucene for search
+     * capabilities. The entity class of the configuration must be set.
      *
      * @param config PostgreSQL search configuration
      * @param <T>    Type of searchable entity
@@ -44,12 +65,25 @@ public class SearchEngineFactory {
 
         log.info("Creating PostgreSQL search engine for entity type: {} with config: {}",
                 config.getEntityType(), config);
-        return new LucenePostgresSearchEngine<>(
-                config.getLuceneIndexPath(),
-                config.getEntityType(),
-                config.getDbUrl(),
-                config.getDbUsername(),
-                config.getDbPassword());
+        return new LucenePostgresSearchEngine<>(config);
+    }
+
+    /**
+     * Create a PostgreSQL-based search engine that decodes results into the
+     * given entity class.
+     *
+     * @param config      PostgreSQL search configuration
+     * @param entityClass Concrete entity class stored in the engine
+     * @param <T>         Type of searchable entity
+     * @return Configured search engine
+     * @throws IOException if index creation fails
+     */
+    public static <T extends SearchableEntity> SearchEngine<T> createPostgresSearchEngine(
+            PostgresSearchConfig config, Class<T> entityClass) throws IOException {
+
+        return createPostgresSearchEngine(config.toBuilder()
+                .entityClass(entityClass)
+                .build());
     }
 
     /**
@@ -57,6 +91,7 @@ public class SearchEngineFactory {
      *
      * @param luceneIndexPath Path to the Lucene index directory
      * @param entityType      Type of entity being indexed
+     * @param entityClass     Concrete entity class stored in the engine
      * @param dbUrl           PostgreSQL database URL
      * @param dbUsername      Database username
      * @param dbPassword      Database password
@@ -65,12 +100,13 @@ public class SearchEngineFactory {
      * @throws IOException if index creation fails
      */
     public static <T extends SearchableEntity> SearchEngine<T> createPostgresSearchEngine(
-            String luceneIndexPath, String entityType, String dbUrl,
+            String luceneIndexPath, String entityType, Class<T> entityClass, String dbUrl,
             String dbUsername, String dbPassword) throws IOException {
 
         PostgresSearchConfig config = PostgresSearchConfig.builder()
                 .luceneIndexPath(luceneIndexPath)
                 .entityType(entityType)
+                .entityClass(entityClass)
                 .dbUrl(dbUrl)
                 .dbUsername(dbUsername)
                 .dbPassword(dbPassword)
@@ -84,6 +120,7 @@ public class SearchEngineFactory {
      *
      * @param luceneIndexPath Path to the Lucene index directory
      * @param entityType      Type of entity being indexed
+     * @param entityClass     Concrete entity class stored in the engine
      * @param dbUrl           PostgreSQL database URL
      * @param dbUsername      Database username
      * @param dbPassword      Database password
@@ -93,12 +130,13 @@ public class SearchEngineFactory {
      * @throws IOException if index creation fails
      */
     public static <T extends SearchableEntity> SearchEngine<T> createPostgresSearchEngine(
-            String luceneIndexPath, String entityType, String dbUrl,
+            String luceneIndexPath, String entityType, Class<T> entityClass, String dbUrl,
             String dbUsername, String dbPassword, int maxPoolSize) throws IOException {
 
         PostgresSearchConfig config = PostgresSearchConfig.builder()
                 .luceneIndexPath(luceneIndexPath)
                 .entityType(entityType)
+                .entityClass(entityClass)
                 .dbUrl(dbUrl)
                 .dbUsername(dbUsername)
                 .dbPassword(dbPassword)
@@ -1,7 +1,10 @@
 package com.h12.seekly.metrics;
 
+import com.h12.seekly.core.CacheStats;
+import com.h12.seekly.core.QueryCacheStats;
 import com.h12.seekly.core.SearchMetric;
 import com.h12.seekly.core.SearchPerformanceStats;
+import com.h12.seekly.store.JdbcBlockCache;
 import io.micrometer.core.instrument.*;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,6 +12,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Prometheus metrics collector for the Seekly search engine.
@@ -32,6 +36,10 @@ public class SearchMetricsCollector {
 
     // Gauges
     private final Map<String, Gauge> entityTypeGauges = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<QueryCacheStats>> queryCacheStats = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<CacheStats>> queryPlanCacheStats = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<CacheStats>> resultCacheStats = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<CacheStats>> blockCacheStats = new ConcurrentHashMap<>();
     private final Gauge totalDocumentsGauge;
     private final Gauge indexSizeGauge;
     private final Gauge memoryUsageGauge;
@@ -246,6 +254,134 @@ public class SearchMetricsCollector {
         }
     }
 
+    /**
+     * Expose the filter query cache of an engine; the statistics are read each
+     * time the registry is scraped
+     */
+    public void registerQueryCache(String entityType, Supplier<QueryCacheStats> statsSupplier) {
+        if (queryCacheStats.putIfAbsent(entityType, statsSupplier) != null) {
+            return;
+        }
+
+        FunctionCounter.builder(this.metricsPrefix + "_query_cache_hits_total", statsSupplier,
+                        stats -> stats.get().getHitCount())
+                .tag("entity_type", entityType)
+                .description("Number of filter cache lookups served from the cache")
+                .register(meterRegistry);
+
+        FunctionCounter.builder(this.metricsPrefix + "_query_cache_misses_total", statsSupplier,
+                        stats -> stats.get().getMissCount())
+                .tag("entity_type", entityType)
+                .description("Number of filter cache lookups that evaluated the query")
+                .register(meterRegistry);
+
+        FunctionCounter.builder(this.metricsPrefix + "_query_cache_evictions_total", statsSupplier,
+                        stats -> stats.get().getEvictionCount())
+                .tag("entity_type", entityType)
+                .description("Number of cached filter results evicted")
+                .register(meterRegistry);
+
+        Gauge.builder(this.metricsPrefix + "_query_cache_size", statsSupplier, stats -> stats.get().getCacheSize())
+                .tag("entity_type", entityType)
+                .description("Number of filter results currently cached")
+                .register(meterRegistry);
+
+        Gauge.builder(this.metricsPrefix + "_query_cache_memory_bytes", statsSupplier,
+                        stats -> stats.get().getRamBytesUsed())
+                .tag("entity_type", entityType)
+                .description("Memory used by the filter cache in bytes")
+                .register(meterRegistry);
+
+        Gauge.builder(this.metricsPrefix + "_query_cache_hit_rate", statsSupplier, stats -> stats.get().getHitRate())
+                .tag("entity_type", entityType)
+                .description("Share of filter cache lookups served from the cache")
+                .register(meterRegistry);
+
+        log.info("Registered query cache metrics for entity type: {}", entityType);
+    }
+
+    /**
+     * Expose the compiled query plan cache of an engine
+     */
+    public void registerQueryPlanCache(String entityType, Supplier<CacheStats> statsSupplier) {
+        if (queryPlanCacheStats.putIfAbsent(entityType, statsSupplier) != null) {
+            return;
+        }
+
+        registerCacheMeters("query_plan_cache", "query plan cache", "entity_type", entityType, statsSupplier);
+        log.info("Registered query plan cache metrics for entity type: {}", entityType);
+    }
+
+    /**
+     * Expose the search result cache of an engine
+     */
+    public void registerResultCache(String entityType, Supplier<CacheStats> statsSupplier) {
+        if (resultCacheStats.putIfAbsent(entityType, statsSupplier) != null) {
+            return;
+        }
+
+        registerCacheMeters("result_cache", "result cache", "entity_type", entityType, statsSupplier);
+        log.info("Registered result cache metrics for entity type: {}", entityType);
+    }
+
+    /**
+     * Expose a JDBC directory block cache under the given name. A cache may be
+     * shared by several directories, so its meters are tagged by cache rather
+     * than by entity type
+     */
+    public void registerBlockCache(String cacheName, JdbcBlockCache blockCache) {
+        // Meters hold their state object weakly; the map keeps the supplier reachable
+        Supplier<CacheStats> statsSupplier = blockCache::getStats;
+        if (blockCacheStats.putIfAbsent(cacheName, statsSupplier) != null) {
+            return;
+        }
+
+        registerCacheMeters("block_cache", "block cache", "cache", cacheName, statsSupplier);
+        log.info("Registered block cache metrics for cache: {}", cacheName);
+    }
+
+    /**
+     * Register hit, miss, eviction, size, memory and hit rate meters for a
+     * cache, tagged with the given key and value
+     */
+    private void registerCacheMeters(String cache, String description, String tagKey, String tagValue,
+            Supplier<CacheStats> statsSupplier) {
+        FunctionCounter.builder(this.metricsPrefix + "_" + cache + "_hits_total", statsSupplier,
+                        stats -> stats.get().getHitCount())
+                .tag(tagKey, tagValue)
+                .description("Number of " + description + " lookups served from the cache")
+                .register(meterRegistry);
+
+        FunctionCounter.builder(this.metricsPrefix + "_" + cache + "_misses_total", statsSupplier,
+                        stats -> stats.get().getMissCount())
+                .tag(tagKey, tagValue)
+                .description("Number of " + description + " lookups that missed")
+                .register(meterRegistry);
+
+        FunctionCounter.builder(this.metricsPrefix + "_" + cache + "_evictions_total", statsSupplier,
+                        stats -> stats.get().getEvictionCount())
+                .tag(tagKey, tagValue)
+                .description("Number of " + description + " entries evicted")
+                .register(meterRegistry);
+
+        Gauge.builder(this.metricsPrefix + "_" + cache + "_size", statsSupplier, stats -> stats.get().getSize())
+                .tag(tagKey, tagValue)
+                .description("Number of " + description + " entries")
+                .register(meterRegistry);
+
+        Gauge.builder(this.metricsPrefix + "_" + cache + "_memory_bytes", statsSupplier,
+                        stats -> stats.get().getRamBytesUsed())
+                .tag(tagKey, tagValue)
+                .description("Approximate memory used by the " + description + " in bytes")
+                .register(meterRegistry);
+
+        Gauge.builder(this.metricsPrefix + "_" + cache + "_hit_rate", statsSupplier,
+                        stats -> stats.get().getHitRate())
+                .tag(tagKey, tagValue)
+                .description("Share of " + description + " lookups served from the cache")
+                .register(meterRegistry);
+    }
+
     /**
      * Record entity type specific metrics
      */
@@ -340,6 +476,18 @@ public class SearchMetricsCollector {
         snapshot.put("entityTypeResults", new HashMap<>(entityTypeResults));
         snapshot.put("entityTypeDurations", new HashMap<>(entityTypeDurations));
 
+        Map<String, QueryCacheStats> queryCaches = new HashMap<>();
+        queryCacheStats.forEach((entityType, stats) -> queryCaches.put(entityType, stats.get()));
+        snapshot.put("queryCache", queryCaches);
+
+        Map<String, CacheStats> queryPlanCaches = new HashMap<>();
+        queryPlanCacheStats.forEach((entityType, stats) -> queryPlanCaches.put(entityType, stats.get()));
+        snapshot.put("queryPlanCache", queryPlanCaches);
+
+        Map<String, CacheStats> resultCaches = new HashMap<>();
+        resultCacheStats.forEach((entityType, stats) -> resultCaches.put(entityType, stats.get()));
+        snapshot.put("resultCache", resultCaches);
+
         return snapshot;
     }
 }
\ No newline at end of file
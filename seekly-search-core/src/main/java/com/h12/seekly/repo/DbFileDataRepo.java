@@ -3,9 +3,15 @@ package com.h12.seekly.repo;
 import com.h12.seekly.entity.DbFileData;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Repository
 public interface DbFileDataRepo extends CrudRepository<DbFileData, String> {
 
+    @Transactional
     void deleteByFileName(String name);
+
+    Optional<DbFileData> findByFileIdAndChunkIndex(String fileId, int chunkIndex);
 }
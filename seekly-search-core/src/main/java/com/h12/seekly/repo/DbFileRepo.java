@@ -1,13 +1,52 @@
 package com.h12.seekly.repo;
 
 import com.h12.seekly.entity.DbFile;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DbFileRepo extends CrudRepository<DbFile, String> {
+    @Transactional
     void deleteByName(String name);
     Optional<DbFile> findByName(String name);
+    Optional<DbFile> findByFilePathAndNameAndIsDeletedFalse(String filePath, String name);
+    boolean existsByFilePathAndNameAndIsDeletedFalse(String filePath, String name);
+
+    @Query("SELECT f.name FROM DbFile f WHERE f.filePath = :filePath AND f.isDeleted = false")
+    List<String> findNamesByFilePath(@Param("filePath") String filePath);
+
+    /**
+     * Delete a file and its chunks in one statement
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH deleted AS (DELETE FROM sleeky_files WHERE id = :id RETURNING id)
+            DELETE FROM sleeky_files_data WHERE file_id IN (SELECT id FROM deleted)
+            """, nativeQuery = true)
+    void deleteWithChunks(@Param("id") String id);
+
+    /**
+     * Delete the files of a directory marked deleted, and their chunks, in one statement.
+     * Runs as a query so the count is of files rather than of chunk rows
+     *
+     * @return number of files deleted
+     */
+    @Transactional
+    @Query(value = """
+            WITH deleted AS (
+                DELETE FROM sleeky_files WHERE file_path = :filePath AND is_deleted = TRUE RETURNING id
+            ), chunks AS (
+                DELETE FROM sleeky_files_data WHERE file_id IN (SELECT id FROM deleted)
+            )
+            SELECT count(*) FROM deleted
+            """, nativeQuery = true)
+    int deleteMarkedWithChunks(@Param("filePath") String filePath);
 }
@@ -3,5 +3,8 @@ package com.h12.seekly.repo;
 import com.h12.seekly.entity.Index;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Optional;
+
 public interface IndexRepository extends CrudRepository<Index, String> {
+    Optional<Index> findByIndexName(String indexName);
 }
@@ -0,0 +1,160 @@
+package com.h12.seekly.store;
+
+import com.h12.seekly.core.CacheStats;
+import org.apache.lucene.util.IOSupplier;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of file chunks in front of a {@link JdbcDirectoryStore}.
+ * Chunks are copied off-heap into direct buffers, so a large cache adds no GC
+ * pressure, and handed to inputs as-is. Keys are the file ID and chunk index:
+ * file IDs survive renames and are never reused, so an entry can only go stale
+ * through a delete, which invalidates the file. The cache is split into
+ * segments, each an LRU bounded by its share of the byte budget, so concurrent
+ * readers rarely contend. Evicted buffers still held by open inputs stay valid
+ * until those inputs move on. One cache may be shared by several directories.
+ */
+public class JdbcBlockCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final long maxBytes;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxBytes total size of cached chunks; direct memory must allow for it
+     */
+    public JdbcBlockCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxBytes / SEGMENTS);
+        }
+    }
+
+    /**
+     * Largest chunk the cache can hold: a chunk must fit in the share of the
+     * budget of one segment
+     */
+    public long getMaxBlockBytes() {
+        return maxBytes / SEGMENTS;
+    }
+
+    /**
+     * Cached chunk, loading and caching it on a miss
+     */
+    public ByteBuffer get(String fileId, int chunkIndex, IOSupplier<byte[]> loader) throws IOException {
+        Key key = new Key(fileId, chunkIndex);
+        Segment segment = segmentFor(key);
+        ByteBuffer block = segment.get(key);
+        if (block != null) {
+            hits.incrementAndGet();
+            return block;
+        }
+
+        misses.incrementAndGet();
+        byte[] data = loader.get();
+        if (data.length > segment.maxBytes) {
+            return ByteBuffer.wrap(data);
+        }
+        block = ByteBuffer.allocateDirect(data.length).put(data).flip();
+        return segment.put(key, block);
+    }
+
+    /**
+     * Drop every cached chunk of a file
+     */
+    public void invalidate(String fileId) {
+        for (Segment segment : segments) {
+            segment.invalidate(fileId);
+        }
+    }
+
+    /**
+     * Hit, miss and eviction statistics
+     */
+    public CacheStats getStats() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get();
+        long size = 0;
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.blocks.size();
+                bytes += segment.bytesUsed;
+            }
+        }
+        return CacheStats.builder()
+                .enabled(maxBytes > 0)
+                .hitCount(hitCount)
+                .missCount(misses.get())
+                .evictionCount(evictions.get())
+                .size(size)
+                .ramBytesUsed(bytes)
+                .hitRate(lookups > 0 ? (double) hitCount / lookups : 0)
+                .build();
+    }
+
+    private Segment segmentFor(Key key) {
+        // Spread neighbouring chunks of a file over different segments
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Key(String fileId, int chunkIndex) {
+    }
+
+    private final class Segment {
+        private final long maxBytes;
+        private final Map<Key, ByteBuffer> blocks = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytesUsed;
+
+        Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized ByteBuffer get(Key key) {
+            return blocks.get(key);
+        }
+
+        /**
+         * Cache the block unless a concurrent miss already did
+         *
+         * @return the cached block
+         */
+        synchronized ByteBuffer put(Key key, ByteBuffer block) {
+            ByteBuffer existing = blocks.putIfAbsent(key, block);
+            if (existing != null) {
+                return existing;
+            }
+            bytesUsed += block.capacity();
+
+            Iterator<ByteBuffer> eldest = blocks.values().iterator();
+            while (bytesUsed > maxBytes && eldest.hasNext()) {
+                bytesUsed -= eldest.next().capacity();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+            return block;
+        }
+
+        synchronized void invalidate(String fileId) {
+            Iterator<Map.Entry<Key, ByteBuffer>> entries = blocks.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<Key, ByteBuffer> entry = entries.next();
+                if (entry.getKey().fileId().equals(fileId)) {
+                    bytesUsed -= entry.getValue().capacity();
+                    entries.remove();
+                }
+            }
+        }
+    }
+}
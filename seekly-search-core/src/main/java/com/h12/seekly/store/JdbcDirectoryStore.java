@@ -1,9 +1,13 @@
 package com.h12.seekly.store;
 
+import com.h12.seekly.core.CacheStats;
 import com.h12.seekly.entity.DbFile;
 import com.h12.seekly.entity.Index;
+import com.h12.seekly.enums.StorageProvider;
+import com.h12.seekly.repo.DbFileDataRepo;
 import com.h12.seekly.repo.DbFileRepo;
 import com.h12.seekly.repo.IndexRepository;
+import org.apache.lucene.index.IndexFileNames;
 import org.apache.lucene.store.BaseDirectory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
@@ -11,85 +15,250 @@ import org.apache.lucene.store.IndexOutput;
 import org.apache.lucene.store.LockFactory;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
 import java.util.Collection;
-import java.util.List;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Lucene directory stored in PostgreSQL.
+ * Every file of the index has a row in {@code sleeky_files} (scoped to the
+ * index by its file path, with length and checksum) and its content split into
+ * fixed-size chunks in {@code sleeky_files_data}. Inputs fetch only the chunks
+ * covering the bytes they read, so a stateless node can search an index kept
+ * in the database without copying it locally, and an optional
+ * {@link JdbcBlockCache} keeps hot chunks local. The chunk size must stay the
+ * same for the lifetime of an index.
+ * <p>
+ * A file is deleted together with its chunks in a single statement. Deleting a
+ * file that inputs of this directory still read only marks it deleted: it
+ * disappears from listings, is reported by {@link #getPendingDeletions()}, and
+ * its rows go once its last input is closed. Rows marked by a process that
+ * stopped before then are removed by {@link #purgeDeletedFiles()}. Inputs on
+ * other nodes are not tracked, so an index searched from several nodes must be
+ * written with an {@link org.apache.lucene.index.IndexDeletionPolicy} that
+ * keeps the commits those nodes may still be reading.
+ */
 public class JdbcDirectoryStore extends BaseDirectory {
 
+    /**
+     * Default size of a stored chunk
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final String OWNER_ID = "seekly";
+
     private final IndexRepository indexRepository;
 
     private final DbFileRepo dbFileRepo;
 
-    protected JdbcDirectoryStore(IndexRepository indexRepository, DbFileRepo dbFileRepo, LockFactory lockFactory) {
+    private final DbFileDataRepo dbFileDataRepo;
+
+    private final String indexName;
+
+    private final int chunkSize;
+
+    private final JdbcBlockCache blockCache;
+
+    private final AtomicLong nextTempFileCounter = new AtomicLong();
+
+    /**
+     * Open inputs per file ID, guarded by this
+     */
+    private final Map<String, Integer> openInputs = new HashMap<>();
+
+    /**
+     * Names of deleted files still open, by file ID, guarded by this
+     */
+    private final Map<String, String> pendingDeletions = new HashMap<>();
+
+    public JdbcDirectoryStore(IndexRepository indexRepository, DbFileRepo dbFileRepo, DbFileDataRepo dbFileDataRepo,
+            String indexName, LockFactory lockFactory) {
+        this(indexRepository, dbFileRepo, dbFileDataRepo, indexName, DEFAULT_CHUNK_SIZE, null, lockFactory);
+    }
+
+    /**
+     * @param blockCache cache reads go through, or null to read every chunk from the database
+     * @throws IllegalArgumentException if chunks of the given size do not fit in the block cache
+     */
+    public JdbcDirectoryStore(IndexRepository indexRepository, DbFileRepo dbFileRepo, DbFileDataRepo dbFileDataRepo,
+            String indexName, int chunkSize, JdbcBlockCache blockCache, LockFactory lockFactory) {
         super(lockFactory);
+        // Larger chunks would bypass the cache on every read
+        if (blockCache != null && chunkSize > blockCache.getMaxBlockBytes()) {
+            throw new IllegalArgumentException("Chunk size " + chunkSize + " exceeds the largest block the cache holds ("
+                    + blockCache.getMaxBlockBytes() + " bytes); increase the cache size or use smaller chunks");
+        }
         this.indexRepository = indexRepository;
         this.dbFileRepo = dbFileRepo;
+        this.dbFileDataRepo = dbFileDataRepo;
+        this.indexName = indexName;
+        this.chunkSize = chunkSize;
+        this.blockCache = blockCache;
+        registerIndex();
     }
 
     @Override
-    public String[] listAll() {
-        Iterable<Index> indexes = indexRepository.findAll();
-        List<String> indexNames = new ArrayList<>();
-        for (Index index : indexes) {
-            indexNames.add(index.getIndexName());
-        }
-        return indexNames.toArray(new String[0]);
+    public String[] listAll() throws IOException {
+        ensureOpen();
+        // Lucene expects the names in sorted order
+        return dbFileRepo.findNamesByFilePath(indexName).stream().sorted().toArray(String[]::new);
     }
 
     @Override
     public void deleteFile(String name) throws IOException {
-        dbFileRepo.deleteByName(name);
+        ensureOpen();
+        DbFile dbFile = findFile(name);
+        synchronized (this) {
+            if (openInputs.containsKey(dbFile.getId())) {
+                // Readers still need the chunks; the rows go when the last input closes
+                dbFile.setIsDeleted(true);
+                dbFileRepo.save(dbFile);
+                pendingDeletions.put(dbFile.getId(), name);
+                return;
+            }
+        }
+        deleteRows(dbFile.getId());
     }
 
     @Override
     public long fileLength(String name) throws IOException {
-        Optional<DbFile> dbFile = dbFileRepo.findByName(name);
-        if (dbFile.isPresent()) {
-            return dbFile.get().getFileSize();
-        }
-        return 0L;
+        ensureOpen();
+        return findFile(name).getFileSize();
     }
 
     @Override
     public IndexOutput createOutput(String name, IOContext context) throws IOException {
-        return null;
+        ensureOpen();
+        if (dbFileRepo.existsByFilePathAndNameAndIsDeletedFalse(indexName, name)) {
+            throw new FileAlreadyExistsException(name);
+        }
+        return new JdbcIndexOutput(dbFileDataRepo, dbFileRepo, dbFileRepo.save(newFile(name)), chunkSize);
     }
 
     @Override
     public IndexOutput createTempOutput(String prefix, String suffix, IOContext context) throws IOException {
-        return null;
+        ensureOpen();
+        while (true) {
+            String name = IndexFileNames.segmentFileName(prefix,
+                    suffix + "_" + Long.toString(nextTempFileCounter.getAndIncrement(), Character.MAX_RADIX), "tmp");
+            if (!dbFileRepo.existsByFilePathAndNameAndIsDeletedFalse(indexName, name)) {
+                return createOutput(name, context);
+            }
+        }
     }
 
     @Override
     public void sync(Collection<String> names) throws IOException {
-
+        ensureOpen();
+        // Outputs commit every chunk to PostgreSQL before close returns
     }
 
     @Override
     public void syncMetaData() throws IOException {
-
+        ensureOpen();
+        // Metadata rows are committed as they change
     }
 
     @Override
     public void rename(String source, String dest) throws IOException {
-
+        ensureOpen();
+        // Chunks reference the file by ID, so a rename is a single row update
+        DbFile dbFile = findFile(source);
+        dbFile.setName(dest);
+        dbFileRepo.save(dbFile);
     }
 
     @Override
     public IndexInput openInput(String name, IOContext context) throws IOException {
-        return null;
+        ensureOpen();
+        DbFile dbFile = findFile(name);
+        String fileId = dbFile.getId();
+        synchronized (this) {
+            openInputs.merge(fileId, 1, Integer::sum);
+        }
+        return new JdbcIndexInput("JdbcIndexInput(" + indexName + "/" + name + ")", dbFileDataRepo, blockCache,
+                fileId, chunkSize, 0, dbFile.getFileSize(), () -> inputClosed(fileId));
+    }
+
+    /**
+     * Remove files left marked deleted by a directory that stopped before their
+     * inputs were closed. Call it only while no directory reads those files,
+     * for example when the writer starts.
+     *
+     * @return number of files removed
+     */
+    public int purgeDeletedFiles() {
+        ensureOpen();
+        return dbFileRepo.deleteMarkedWithChunks(indexName);
+    }
+
+    /**
+     * Statistics of the block cache, or null when reads are not cached
+     */
+    public CacheStats getBlockCacheStats() {
+        return blockCache != null ? blockCache.getStats() : null;
     }
 
     @Override
     public void close() throws IOException {
+        isOpen = false;
+    }
+
+    @Override
+    public synchronized Set<String> getPendingDeletions() throws IOException {
+        return Set.copyOf(pendingDeletions.values());
+    }
+
+    private void inputClosed(String fileId) {
+        synchronized (this) {
+            if (openInputs.merge(fileId, -1, Integer::sum) > 0) {
+                return;
+            }
+            openInputs.remove(fileId);
+            if (pendingDeletions.remove(fileId) == null) {
+                return;
+            }
+        }
+        deleteRows(fileId);
+    }
+
+    private void deleteRows(String fileId) {
+        dbFileRepo.deleteWithChunks(fileId);
+        if (blockCache != null) {
+            blockCache.invalidate(fileId);
+        }
+    }
 
+    private DbFile findFile(String name) throws NoSuchFileException {
+        return dbFileRepo.findByFilePathAndNameAndIsDeletedFalse(indexName, name)
+                .orElseThrow(() -> new NoSuchFileException(indexName + "/" + name));
+    }
+
+    private DbFile newFile(String name) {
+        DbFile dbFile = new DbFile();
+        dbFile.setName(name);
+        dbFile.setFilePath(indexName);
+        dbFile.setFileSize(0L);
+        dbFile.setMimeType("application/octet-stream");
+        dbFile.setOwnerId(OWNER_ID);
+        dbFile.setStorageProvider(StorageProvider.LOCAL);
+        return dbFile;
+    }
+
+    private void registerIndex() {
+        if (indexRepository.findByIndexName(indexName).isEmpty()) {
+            Index index = new Index();
+            index.setIndexName(indexName);
+            indexRepository.save(index);
+        }
     }
 
     @Override
-    public Set<String> getPendingDeletions() throws IOException {
-        return Set.of();
+    public String toString() {
+        return "JdbcDirectoryStore@" + indexName + " lockFactory=" + lockFactory;
     }
 }
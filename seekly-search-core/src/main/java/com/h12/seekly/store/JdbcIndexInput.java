@@ -0,0 +1,143 @@
+package com.h12.seekly.store;
+
+import com.h12.seekly.entity.DbFileData;
+import com.h12.seekly.repo.DbFileDataRepo;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.store.IndexInput;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Random-access input over a file stored as fixed-size chunks.
+ * Only the chunk holding the current position is kept; seeking is free and a
+ * chunk is fetched the first time a byte in it is read, through the block
+ * cache when there is one. Clones and slices share the immutable chunk they
+ * were created with. Closing the input opened by the directory tells it the
+ * file is no longer read; Lucene never closes clones and slices, so theirs do not.
+ */
+public class JdbcIndexInput extends IndexInput {
+    private final DbFileDataRepo dbFileDataRepo;
+    private final JdbcBlockCache blockCache;
+    private final String fileId;
+    private final int chunkSize;
+    private final long offset;
+    private final long length;
+    private long position;
+    private ByteBuffer chunk;
+    private int chunkIndex = -1;
+    private Runnable onClose;
+
+    /**
+     * @param blockCache cache chunks are read through, or null to always read from the database
+     * @param offset     start of this input within the file
+     * @param length     number of bytes readable from the offset
+     * @param onClose    run once when this input is closed, or null
+     */
+    protected JdbcIndexInput(String resourceDescription, DbFileDataRepo dbFileDataRepo, JdbcBlockCache blockCache,
+            String fileId, int chunkSize, long offset, long length, Runnable onClose) {
+        super(resourceDescription);
+        this.onClose = onClose;
+        this.dbFileDataRepo = dbFileDataRepo;
+        this.blockCache = blockCache;
+        this.fileId = fileId;
+        this.chunkSize = chunkSize;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+        if (position >= length) {
+            throw new EOFException("Read past EOF: " + this);
+        }
+        long filePosition = offset + position;
+        byte b = chunkAt(filePosition).get((int) (filePosition % chunkSize));
+        position++;
+        return b;
+    }
+
+    @Override
+    public void readBytes(byte[] b, int off, int len) throws IOException {
+        if (len > length - position) {
+            throw new EOFException("Read past EOF: " + this);
+        }
+        while (len > 0) {
+            long filePosition = offset + position;
+            int chunkOffset = (int) (filePosition % chunkSize);
+            int count = Math.min(len, chunkSize - chunkOffset);
+            chunkAt(filePosition).get(chunkOffset, b, off, count);
+            position += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public long getFilePointer() {
+        return position;
+    }
+
+    @Override
+    public void seek(long pos) throws IOException {
+        if (pos < 0 || pos > length) {
+            throw new EOFException("Seek to " + pos + " outside of [0, " + length + "]: " + this);
+        }
+        position = pos;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public IndexInput slice(String sliceDescription, long offset, long length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > this.length) {
+            throw new IllegalArgumentException("Slice " + sliceDescription + " out of bounds: offset=" + offset
+                    + ", length=" + length + ", fileLength=" + this.length + ": " + this);
+        }
+        JdbcIndexInput slice = new JdbcIndexInput(getFullSliceDescription(sliceDescription), dbFileDataRepo,
+                blockCache, fileId, chunkSize, this.offset + offset, length, null);
+        slice.chunk = chunk;
+        slice.chunkIndex = chunkIndex;
+        return slice;
+    }
+
+    @Override
+    public JdbcIndexInput clone() {
+        JdbcIndexInput clone = (JdbcIndexInput) super.clone();
+        clone.onClose = null;
+        return clone;
+    }
+
+    @Override
+    public void close() {
+        chunk = null;
+        chunkIndex = -1;
+        Runnable closed = onClose;
+        onClose = null;
+        if (closed != null) {
+            closed.run();
+        }
+    }
+
+    private ByteBuffer chunkAt(long filePosition) throws IOException {
+        int index = (int) (filePosition / chunkSize);
+        if (index != chunkIndex) {
+            // Only absolute reads are used, so a cached buffer is shared without duplicating it
+            chunk = blockCache != null
+                    ? blockCache.get(fileId, index, () -> loadChunk(index))
+                    : ByteBuffer.wrap(loadChunk(index));
+            chunkIndex = index;
+        }
+        return chunk;
+    }
+
+    private byte[] loadChunk(int index) throws IOException {
+        return dbFileDataRepo.findByFileIdAndChunkIndex(fileId, index)
+                .map(DbFileData::getData)
+                .orElseThrow(() -> new CorruptIndexException("Missing chunk " + index, this));
+    }
+}
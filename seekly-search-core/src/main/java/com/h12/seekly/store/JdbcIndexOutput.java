@@ -4,95 +4,113 @@ import com.h12.seekly.entity.DbFile;
 import com.h12.seekly.entity.DbFileData;
 import com.h12.seekly.repo.DbFileDataRepo;
 import com.h12.seekly.repo.DbFileRepo;
+import org.apache.lucene.store.BufferedChecksum;
 import org.apache.lucene.store.IndexOutput;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Optional;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
 
+/**
+ * Output for a new file of a {@link JdbcDirectoryStore}.
+ * Bytes are collected in a single chunk-sized buffer that is stored as soon as
+ * it fills, so heap use stays at one chunk whatever the file size. The file
+ * pointer and CRC32 are maintained as bytes are written; the file's length and
+ * checksum are published on close, after its last chunk is stored.
+ */
 public class JdbcIndexOutput extends IndexOutput {
     private final DbFileDataRepo dbFileDataRepo;
     private final DbFileRepo dbFileRepo;
-    private final ByteArrayOutputStream buffer;
+    private final DbFile dbFile;
+    private final Checksum crc = new BufferedChecksum(new CRC32());
+    private byte[] chunk;
+    private int chunkLength;
+    private int chunkIndex;
+    private long filePointer;
     private boolean closed = false;
 
-    protected JdbcIndexOutput(DbFileDataRepo dbFileDataRepo, DbFileRepo dbFileRepo, String name) {
-        super(name, name);
+    protected JdbcIndexOutput(DbFileDataRepo dbFileDataRepo, DbFileRepo dbFileRepo, DbFile dbFile, int chunkSize) {
+        super("JdbcIndexOutput(" + dbFile.getFilePath() + "/" + dbFile.getName() + ")", dbFile.getName());
         this.dbFileDataRepo = dbFileDataRepo;
         this.dbFileRepo = dbFileRepo;
-        // Initialize buffer from existing DbFileData if present
-        Optional<DbFile> dbFileOpt = dbFileRepo.findByName(name);
-        if (dbFileOpt.isPresent() && dbFileOpt.get().getDbFileData() != null
-                && dbFileOpt.get().getDbFileData().getData() != null) {
-            this.buffer = new ByteArrayOutputStream();
-            try {
-                this.buffer.write(dbFileOpt.get().getDbFileData().getData());
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to initialize buffer from DB", e);
-            }
-        } else {
-            this.buffer = new ByteArrayOutputStream();
-        }
+        this.dbFile = dbFile;
+        this.chunk = new byte[chunkSize];
     }
 
     @Override
-    public void close() {
+    public void close() throws IOException {
         if (closed)
             return;
         closed = true;
-        byte[] fileData = buffer.toByteArray();
-        String fileName = getName();
-
-        Optional<DbFile> dbFileOpt = dbFileRepo.findByName(fileName);
-        DbFileData dbFileData;
-        if (dbFileOpt.isPresent()) {
-            DbFile dbFile = dbFileOpt.get();
-            dbFileData = dbFile.getDbFileData();
-            if (dbFileData == null) {
-                dbFileData = new DbFileData();
-                dbFileData.setFileName(fileName);
-            }
-            dbFileData.setContentType("application/octet-stream");
-            dbFileData.setData(fileData);
-            dbFileData = dbFileDataRepo.save(dbFileData);
-            dbFile.setDbFileData(dbFileData);
-            dbFileRepo.save(dbFile);
-        } else {
-            dbFileData = new DbFileData();
-            dbFileData.setFileName(fileName);
-            dbFileData.setContentType("application/octet-stream");
-            dbFileData.setData(fileData);
-            dbFileData = dbFileDataRepo.save(dbFileData);
-            // Optionally, create a new DbFile and link it to dbFileData
-            // DbFile dbFile = new DbFile();
-            // dbFile.setName(fileName);
-            // dbFile.setDbFileData(dbFileData);
-            // dbFileRepo.save(dbFile);
+        if (chunkLength > 0) {
+            storeChunk(Arrays.copyOf(chunk, chunkLength));
         }
-        buffer.reset();
+        chunk = null;
+
+        // The length is published only once every chunk is stored
+        dbFile.setFileSize(filePointer);
+        dbFile.setChecksum(crc.getValue());
+        dbFileRepo.save(dbFile);
     }
 
     @Override
     public long getFilePointer() {
-        return 0;
+        return filePointer;
     }
 
     @Override
     public long getChecksum() {
-        Optional<DbFile> dbFile = dbFileRepo.findByName(getName());
-        return dbFile.map(DbFile::getChecksum).orElse(0L);
+        return crc.getValue();
     }
 
     @Override
     public void writeByte(byte b) throws IOException {
         ensureOpen();
-        buffer.write(b);
+        chunk[chunkLength++] = b;
+        crc.update(b);
+        filePointer++;
+        if (chunkLength == chunk.length) {
+            flushChunk();
+        }
     }
 
     @Override
     public void writeBytes(byte[] b, int offset, int length) throws IOException {
         ensureOpen();
-        buffer.write(b, offset, length);
+        crc.update(b, offset, length);
+        filePointer += length;
+        while (length > 0) {
+            int count = Math.min(length, chunk.length - chunkLength);
+            System.arraycopy(b, offset, chunk, chunkLength, count);
+            chunkLength += count;
+            offset += count;
+            length -= count;
+            if (chunkLength == chunk.length) {
+                flushChunk();
+            }
+        }
+    }
+
+    /**
+     * Store the full buffer and start a new one; the stored array is handed over
+     * rather than copied
+     */
+    private void flushChunk() {
+        byte[] full = chunk;
+        chunk = new byte[full.length];
+        chunkLength = 0;
+        storeChunk(full);
+    }
+
+    private void storeChunk(byte[] data) {
+        DbFileData chunkData = new DbFileData();
+        chunkData.setFileName(dbFile.getName());
+        chunkData.setContentType("application/octet-stream");
+        chunkData.setFileId(dbFile.getId());
+        chunkData.setChunkIndex(chunkIndex++);
+        chunkData.setData(data);
+        dbFileDataRepo.save(chunkData);
     }
 
     private void ensureOpen() throws IOException {
@@ -0,0 +1,41 @@
+-- Chunked file storage for JdbcDirectoryStore.
+--
+-- Creates sleeky_files_data on a new database, or upgrades a table created before
+-- files were chunked: adds file_id and chunk_index, moves data from large objects
+-- (oid) to inline bytea and makes (file_id, chunk_index) unique. The applications
+-- run with ddl-auto: validate, so apply this before starting them. Safe to re-run.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS sleeky_files_data (
+    id           VARCHAR(255) PRIMARY KEY,
+    filename     VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    file_id      VARCHAR(255),
+    chunk_index  INTEGER      NOT NULL DEFAULT 0,
+    data         BYTEA        NOT NULL
+);
+
+ALTER TABLE sleeky_files_data ADD COLUMN IF NOT EXISTS file_id VARCHAR(255);
+ALTER TABLE sleeky_files_data ADD COLUMN IF NOT EXISTS chunk_index INTEGER NOT NULL DEFAULT 0;
+
+DO $$
+BEGIN
+    IF (SELECT data_type FROM information_schema.columns
+        WHERE table_schema = current_schema() AND table_name = 'sleeky_files_data' AND column_name = 'data') = 'oid'
+    THEN
+        -- Copy each large object inline, then free it
+        ALTER TABLE sleeky_files_data ADD COLUMN data_bytes BYTEA;
+        UPDATE sleeky_files_data SET data_bytes = lo_get(data);
+        PERFORM lo_unlink(data) FROM sleeky_files_data;
+        ALTER TABLE sleeky_files_data DROP COLUMN data;
+        ALTER TABLE sleeky_files_data RENAME COLUMN data_bytes TO data;
+        ALTER TABLE sleeky_files_data ALTER COLUMN data SET NOT NULL;
+    END IF;
+END $$;
+
+-- Replaces a non-unique index a schema update may have created under this name
+DROP INDEX IF EXISTS idx_sleeky_files_data_chunk;
+CREATE UNIQUE INDEX idx_sleeky_files_data_chunk ON sleeky_files_data (file_id, chunk_index);
+
+COMMIT;
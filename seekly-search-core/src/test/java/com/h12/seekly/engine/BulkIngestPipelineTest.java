@@ -0,0 +1,85 @@
+package com.h12.seekly.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkIngestPipelineTest {
+
+    private final Map<String, Integer> stored = new ConcurrentHashMap<>();
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private BulkIngestPipeline<Entity, Entity> pipeline;
+
+    @AfterEach
+    void close() {
+        pipeline.close();
+    }
+
+    @Test
+    void lastOccurrenceOfAnIdInTheInputWins() throws Exception {
+        pipeline = pipeline(4, 5);
+        Random random = new Random(1);
+        List<Entity> input = new ArrayList<>();
+        Map<String, Integer> expected = new ConcurrentHashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            Entity entity = new Entity("id" + random.nextInt(50), i);
+            input.add(entity);
+            expected.put(entity.id(), i);
+        }
+
+        BulkIngestPipeline.Outcome outcome = pipeline.run(input.iterator(), null);
+
+        assertThat(stored).isEqualTo(expected);
+        assertThat(outcome.sequence()).isPositive();
+    }
+
+    @Test
+    void repeatedIdWithinABatchIsWrittenOnce() throws Exception {
+        pipeline = pipeline(1, 10);
+
+        BulkIngestPipeline.Outcome outcome = pipeline.run(List.of(new Entity("a", 1), new Entity("b", 2),
+                new Entity("a", 3)).iterator(), null);
+
+        assertThat(batches).containsExactly(List.of("b", "a"));
+        assertThat(stored).containsEntry("a", 3).containsEntry("b", 2);
+        assertThat(outcome.processed()).isEqualTo(2);
+    }
+
+    @Test
+    void failureOfABatchFailsTheRun() {
+        pipeline = new BulkIngestPipeline<>("item", 2, 5, 2, Entity::id, entity -> entity, batch -> {
+            throw new IllegalStateException("index down");
+        }, null, null);
+
+        List<Entity> input = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            input.add(new Entity("id" + i, i));
+        }
+        assertThatThrownBy(() -> pipeline.run(input.iterator(), null)).hasMessage("index down");
+    }
+
+    private BulkIngestPipeline<Entity, Entity> pipeline(int threads, int batchSize) {
+        Random jitter = new Random(2);
+        return new BulkIngestPipeline<>("item", threads, batchSize, 3, Entity::id, entity -> entity, batch -> {
+            batches.add(batch.stream().map(Entity::id).toList());
+            return (long) batches.size();
+        }, batch -> {
+            // Uneven store times let batches of different workers finish out of order
+            Thread.sleep(jitter.nextInt(3));
+            batch.forEach(entity -> stored.put(entity.id(), entity.version()));
+            return null;
+        }, null);
+    }
+
+    private record Entity(String id, int version) {
+    }
+}
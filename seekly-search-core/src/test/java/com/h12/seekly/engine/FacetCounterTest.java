@@ -0,0 +1,167 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.SearchOptions;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class FacetCounterTest {
+
+    private Directory directory;
+    private IndexWriter writer;
+    private DirectoryReader reader;
+
+    @AfterEach
+    void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+        writer.close();
+        directory.close();
+    }
+
+    @Test
+    void rangeBucketsAreHalfOpenWithAnOpenEndedLastBucket() throws IOException {
+        open();
+        for (Object price : List.of(-5, 0, 50, 99.99, 100, 250.5, 499, 500, 10_000)) {
+            add("item", Map.of("price", price));
+        }
+
+        Map<String, Long> ranges = countRanges(new MatchAllDocsQuery(), "price", List.of(0.0, 100.0, 500.0));
+
+        // -5 is below the first edge and not counted
+        assertThat(ranges).containsExactly(entry("0-100", 3L), entry("100-500", 3L), entry("500+", 2L));
+    }
+
+    @Test
+    void rangeEdgesAreSortedAndDecimalEdgesKeepTheirFraction() throws IOException {
+        open();
+        for (Object price : List.of(1, 2.5, 2.75, 3)) {
+            add("item", Map.of("price", price));
+        }
+
+        Map<String, Long> ranges = countRanges(new MatchAllDocsQuery(), "price", List.of(2.75, 0.0));
+
+        assertThat(ranges).containsExactly(entry("0-2.75", 2L), entry("2.75+", 2L));
+    }
+
+    @Test
+    void multiValuedDocumentCountsOncePerBucket() throws IOException {
+        open();
+        add("item", Map.of("price", List.of(10, 20, 150)));
+        add("item", Map.of("price", 15));
+
+        Map<String, Long> ranges = countRanges(new MatchAllDocsQuery(), "price", List.of(0.0, 100.0));
+
+        assertThat(ranges).containsExactly(entry("0-100", 2L), entry("100+", 1L));
+    }
+
+    @Test
+    void rangesOnlyCountMatchingDocuments() throws IOException {
+        open();
+        add("phone", Map.of("price", 50));
+        add("phone", Map.of("price", 150));
+        add("cable", Map.of("price", 60));
+
+        Map<String, Long> ranges = countRanges(new TermQuery(new Term("name", "phone")), "price",
+                List.of(0.0, 100.0));
+
+        assertThat(ranges).containsExactly(entry("0-100", 1L), entry("100+", 1L));
+    }
+
+    @Test
+    void valuesAreCountedByFrequencyThenName() throws IOException {
+        open();
+        for (String category : List.of("phone", "case", "phone", "cable", "case", "phone")) {
+            add("item", Map.of("category", category));
+        }
+
+        Map<String, Long> values = countValues(new MatchAllDocsQuery(), "category", 2);
+
+        assertThat(values).containsExactly(entry("phone", 3L), entry("case", 2L));
+    }
+
+    @Test
+    void sparseAndDenseKeywordCountsAgree() throws IOException {
+        open();
+        // Thousands of distinct values, a handful of which are hit
+        for (int i = 0; i < 4000; i++) {
+            add(i % 500 == 0 ? "phone" : "item", Map.of("category", "c" + (i % 2000)));
+        }
+
+        Map<String, Long> sparse = countValues(new TermQuery(new Term("name", "phone")), "category", 100);
+        Map<String, Long> dense = countValues(new MatchAllDocsQuery(), "category", 5000);
+
+        assertThat(sparse).containsOnly(entry("c0", 2L), entry("c500", 2L), entry("c1000", 2L), entry("c1500", 2L));
+        assertThat(dense).hasSize(2000).containsEntry("c0", 2L).containsEntry("c1999", 2L);
+    }
+
+    @Test
+    void numericValuesWithoutRangesAreCountedByValue() throws IOException {
+        open();
+        for (Object quantity : List.of(1, 2, 2, 2.5)) {
+            add("item", Map.of("quantity", quantity));
+        }
+
+        Map<String, Long> values = countValues(new MatchAllDocsQuery(), "quantity", 10);
+
+        assertThat(values).containsExactly(entry("2", 2L), entry("1", 1L), entry("2.5", 1L));
+    }
+
+    private void open() throws IOException {
+        directory = new ByteBuffersDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+    }
+
+    private void add(String name, Map<String, Object> filterableFields) throws IOException {
+        Document doc = new Document();
+        doc.add(new TextField("name", name, Field.Store.NO));
+        FilterCompiler.index(doc, filterableFields);
+        writer.addDocument(doc);
+    }
+
+    private Map<String, Long> countRanges(Query query, String field, List<Double> edges) throws IOException {
+        return FacetCounter.count(collect(query), SearchOptions.builder()
+                .facetFields(List.of(field))
+                .facetRanges(Map.of(field, new ArrayList<>(edges)))
+                .build()).get(field);
+    }
+
+    private Map<String, Long> countValues(Query query, String field, int maxValues) throws IOException {
+        return FacetCounter.count(collect(query), SearchOptions.builder()
+                .facetFields(List.of(field))
+                .maxFacetValues(maxValues)
+                .build()).get(field);
+    }
+
+    private FacetsCollector collect(Query query) throws IOException {
+        if (reader == null) {
+            reader = DirectoryReader.open(writer);
+        }
+        return FacetsCollectorManager.search(new IndexSearcher(reader), query, 1, new FacetsCollectorManager())
+                .facetsCollector();
+    }
+}
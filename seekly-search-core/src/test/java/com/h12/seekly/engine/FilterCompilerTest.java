@@ -0,0 +1,162 @@
+package com.h12.seekly.engine;
+
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FilterCompilerTest {
+
+    private static Directory directory;
+    private static DirectoryReader reader;
+    private static IndexSearcher searcher;
+
+    @BeforeAll
+    static void indexDocuments() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            // price is integral in some documents and decimal in others
+            add(writer, "a", Map.of("price", 10, "category", "phone", "released", LocalDate.of(2024, 1, 1)));
+            add(writer, "b", Map.of("price", 10.5, "category", "phone", "released", LocalDate.of(2024, 6, 1)));
+            add(writer, "c", Map.of("price", 20, "category", "case", "released", LocalDate.of(2025, 1, 1)));
+            add(writer, "d", Map.of("price", new BigDecimal("25.25"), "category", "case",
+                    "tags", List.of("red", "blue")));
+            add(writer, "e", Map.of("price", 30L, "category", "cable", "tags", List.of("blue")));
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+    }
+
+    @AfterAll
+    static void close() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    @Test
+    void noFiltersLeaveTheQueryUnchanged() {
+        Query query = new MatchAllDocsQuery();
+
+        assertThat(FilterCompiler.apply(query, null)).isSameAs(query);
+        assertThat(FilterCompiler.apply(query, Map.of())).isSameAs(query);
+    }
+
+    @Test
+    void exactNumberMatchesIntegralAndDecimalValues() throws IOException {
+        assertThat(search(Map.of("price", 10))).containsExactly("a");
+        assertThat(search(Map.of("price", 10.5))).containsExactly("b");
+        assertThat(search(Map.of("price", new BigDecimal("25.25")))).containsExactly("d");
+    }
+
+    @Test
+    void exactKeywordAndAnyOf() throws IOException {
+        assertThat(search(Map.of("category", "case"))).containsExactly("c", "d");
+        assertThat(search(Map.of("category", List.of("phone", "cable")))).containsExactly("a", "b", "e");
+        assertThat(search(Map.of("tags", "blue"))).containsExactly("d", "e");
+        assertThat(search(Map.of("price", List.of(10.5, 30)))).containsExactly("b", "e");
+    }
+
+    @Test
+    void minAndMaxSuffixesAreInclusive() throws IOException {
+        assertThat(search(Map.of("price_min", 10.5, "price_max", 25.25))).containsExactly("b", "c", "d");
+        assertThat(search(Map.of("price_min", 20))).containsExactly("c", "d", "e");
+        assertThat(search(Map.of("price_max", 10))).containsExactly("a");
+    }
+
+    @Test
+    void suffixWithNonNumericValueIsAnExactKeyword() throws IOException {
+        Map<String, Object> filters = Map.of("category_max", "phone");
+
+        assertThat(search(filters)).isEmpty();
+        assertThat(FilterCompiler.compile(filters)).hasSize(1);
+    }
+
+    @Test
+    void rangeBoundsHonorExclusivity() throws IOException {
+        assertThat(search(Map.of("price", Map.of("gt", 10, "lt", 25.25)))).containsExactly("b", "c");
+        assertThat(search(Map.of("price", Map.of("gte", 10, "lte", 25.25)))).containsExactly("a", "b", "c", "d");
+        assertThat(search(Map.of("price", Map.of("min", 25.3, "max", 30)))).containsExactly("e");
+    }
+
+    @Test
+    void integralValuesMatchWhenAWholeNumberIsWithinDecimalBounds() throws IOException {
+        assertThat(search(Map.of("price", Map.of("gt", 9.5, "lt", 10.4)))).containsExactly("a");
+        assertThat(search(Map.of("price", Map.of("gt", 10.1, "lt", 10.4)))).isEmpty();
+    }
+
+    @Test
+    void suffixAndMapBoundsOfTheSameFieldCombine() throws IOException {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("price", Map.of("gt", 10));
+        filters.put("price_max", 20);
+
+        assertThat(search(filters)).containsExactly("b", "c");
+        assertThat(FilterCompiler.compile(filters)).hasSize(1);
+    }
+
+    @Test
+    void dateRange() throws IOException {
+        Map<String, Object> filters = Map.of("released",
+                Map.of("gte", LocalDate.of(2024, 3, 1), "lt", LocalDate.of(2025, 1, 1)));
+
+        assertThat(search(filters)).containsExactly("b");
+    }
+
+    @Test
+    void nullFilterValuesAreIgnored() {
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("category", null);
+
+        assertThat(FilterCompiler.compile(filters)).isEmpty();
+    }
+
+    @Test
+    void invalidRangeBoundsAreRejected() {
+        assertThatThrownBy(() -> FilterCompiler.compile(Map.of("price", Map.of("above", 10))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown range bound above");
+        assertThatThrownBy(() -> FilterCompiler.compile(Map.of("price", Map.of("gt", "ten"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("must be a number or date");
+    }
+
+    private static void add(IndexWriter writer, String id, Map<String, Object> filterableFields) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        FilterCompiler.index(doc, filterableFields);
+        writer.addDocument(doc);
+    }
+
+    private static Set<String> search(Map<String, Object> filters) throws IOException {
+        Set<String> ids = new TreeSet<>();
+        Query query = FilterCompiler.apply(new MatchAllDocsQuery(), filters);
+        for (ScoreDoc hit : searcher.search(query, 100).scoreDocs) {
+            ids.add(searcher.storedFields().document(hit.doc).get("id"));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,153 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.config.PostgresSearchConfig;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LuceneIndexManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path basePath;
+    private LuceneIndexManager indexManager;
+
+    @BeforeEach
+    void openIndex() throws IOException {
+        basePath = tempDir.resolve("index");
+        indexManager = open();
+        indexManager.getWriter().addDocument(document("v0"));
+        indexManager.refresh();
+    }
+
+    @AfterEach
+    void closeIndex() throws IOException {
+        indexManager.close();
+    }
+
+    @Test
+    void swapKeepsAHeldSearcherOnTheOldVersion() throws IOException {
+        IndexSearcher held = indexManager.acquireSearcher();
+
+        Path rebuilt = build("v1");
+        indexManager.swap(rebuilt);
+
+        assertThat(count(held, "v0")).isEqualTo(1);
+        assertThat(indexManager.getIndexPath()).isEqualTo(rebuilt);
+        assertThat(currentCount("v1")).isEqualTo(1);
+        assertThat(currentCount("v0")).isZero();
+
+        indexManager.releaseSearcher(held);
+        // Kept for rollback
+        assertThat(basePath).isDirectory();
+        assertThat(indexManager.getPreviousIndexPath()).isEqualTo(basePath);
+    }
+
+    @Test
+    void rollbackSwitchesBackToThePreviousVersion() throws IOException {
+        Path rebuilt = build("v1");
+        indexManager.swap(rebuilt);
+
+        assertThat(indexManager.rollback()).isEqualTo(basePath);
+
+        assertThat(indexManager.getIndexPath()).isEqualTo(basePath);
+        assertThat(currentCount("v0")).isEqualTo(1);
+        assertThat(currentCount("v1")).isZero();
+        assertThat(rebuilt).doesNotExist();
+        assertThatThrownBy(indexManager::rollback).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void aliasSurvivesAReopen() throws IOException {
+        Path rebuilt = build("v1");
+        indexManager.swap(rebuilt);
+        indexManager.close();
+
+        indexManager = open();
+
+        assertThat(indexManager.getIndexPath()).isEqualTo(rebuilt);
+        assertThat(currentCount("v1")).isEqualTo(1);
+        assertThat(Files.readString(tempDir.resolve("index.current"))).isEqualTo(rebuilt.getFileName().toString());
+        assertThat(indexManager.getPreviousIndexPath()).isEqualTo(basePath);
+    }
+
+    @Test
+    void retiredVersionIsDeletedOnlyAfterItsLastSearcherIsReleased() throws IOException {
+        IndexSearcher first = indexManager.acquireSearcher();
+        IndexSearcher second = indexManager.acquireSearcher();
+
+        indexManager.swap(build("v1"));
+        // Version 0 is now older than the rollback target, so it goes once released
+        Path latest = build("v2");
+        indexManager.swap(latest);
+        assertThat(basePath).isDirectory();
+
+        indexManager.releaseSearcher(first);
+        assertThat(basePath).isDirectory();
+        assertThat(count(second, "v0")).isEqualTo(1);
+
+        indexManager.releaseSearcher(second);
+        assertThat(basePath).doesNotExist();
+        assertThat(indexManager.getIndexPath()).isEqualTo(latest);
+        assertThat(currentCount("v2")).isEqualTo(1);
+    }
+
+    private LuceneIndexManager open() throws IOException {
+        return new LuceneIndexManager(PostgresSearchConfig.builder()
+                .luceneIndexPath(basePath.toString())
+                .entityType("item")
+                .build(), new StandardAnalyzer());
+    }
+
+    /**
+     * Build a committed index version holding one document tagged with the given value
+     */
+    private Path build(String tag) throws IOException {
+        Path path = indexManager.newIndexPath();
+        try (Directory directory = FSDirectory.open(path);
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            writer.addDocument(document(tag));
+        }
+        return path;
+    }
+
+    private static Document document(String tag) {
+        Document doc = new Document();
+        doc.add(new StringField("id", tag, Field.Store.YES));
+        doc.add(new StringField("tag", tag, Field.Store.NO));
+        return doc;
+    }
+
+    private int currentCount(String tag) throws IOException {
+        IndexSearcher searcher = indexManager.acquireSearcher();
+        try {
+            return count(searcher, tag);
+        } finally {
+            indexManager.releaseSearcher(searcher);
+        }
+    }
+
+    private static int count(IndexSearcher searcher, String tag) throws IOException {
+        return searcher.count(new TermQuery(new Term("tag", tag)));
+    }
+}
@@ -0,0 +1,144 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.config.PostgresSearchConfig;
+import com.h12.seekly.core.SearchOptions;
+import com.h12.seekly.core.SearchResponse;
+import com.h12.seekly.core.SearchResult;
+import com.h12.seekly.core.SearchableEntity;
+import com.h12.seekly.core.WriteOptions;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LuceneSearchEngineTest {
+
+    private static final WriteOptions VISIBLE = WriteOptions.builder().waitForVisibility(true).build();
+
+    @TempDir
+    Path tempDir;
+
+    private LuceneSearchEngine<Item> engine;
+
+    @AfterEach
+    void closeEngine() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    @Test
+    void cursorPagesStayOnTheirSnapshotWhileWritesAreRefreshed() throws IOException {
+        engine = open(config().build());
+        engine.indexBatch(items("old", 30), VISIBLE);
+
+        SearchResponse<Item> first = engine.search("phone", SearchOptions.builder().maxResults(10).build());
+        List<String> paged = new ArrayList<>(ids(first));
+        String cursor = first.getNextCursor();
+
+        // Each write is refreshed into a new searcher before the next page is read
+        engine.indexBatch(items("new", 20), VISIBLE);
+        while (cursor != null) {
+            SearchResponse<Item> page = engine.search("phone",
+                    SearchOptions.builder().maxResults(10).cursor(cursor).build());
+            assertThat(page.isSuccess()).as(page.getErrorMessage()).isTrue();
+            assertThat(page.getTotalHits()).isEqualTo(30);
+            paged.addAll(ids(page));
+            cursor = page.getNextCursor();
+            engine.index(new Item("late" + paged.size(), "phone late"), VISIBLE);
+        }
+
+        assertThat(paged).hasSize(30).doesNotHaveDuplicates().allMatch(id -> id.startsWith("old"));
+        assertThat(engine.search("phone", SearchOptions.builder().maxResults(10).build()).getTotalHits())
+                .isEqualTo(52);
+    }
+
+    @Test
+    void cursorExpiresOnceItsSnapshotOutlivesTheKeepAlive() throws Exception {
+        engine = open(config().cursorKeepAliveMs(0).searcherRefreshIntervalMs(10).searcherMaxStalenessMs(10).build());
+        engine.indexBatch(items("old", 30), VISIBLE);
+        String cursor = engine.search("phone", SearchOptions.builder().maxResults(10).build()).getNextCursor();
+
+        engine.indexBatch(items("new", 5), VISIBLE);
+        SearchResponse<Item> page;
+        long deadline = System.currentTimeMillis() + 10_000;
+        do {
+            // Dropped by the next refresh pass after it was replaced
+            Thread.sleep(20);
+            page = engine.search("phone", SearchOptions.builder().maxResults(10).cursor(cursor).build());
+        } while (page.isSuccess() && System.currentTimeMillis() < deadline);
+
+        assertThat(page.isSuccess()).isFalse();
+        assertThat(page.getErrorMessage()).contains("expired");
+    }
+
+    @Test
+    void malformedCursorFailsTheSearch() {
+        engine = open(config().build());
+
+        SearchResponse<Item> page = engine.search("phone",
+                SearchOptions.builder().maxResults(10).cursor("not a cursor").build());
+
+        assertThat(page.isSuccess()).isFalse();
+        assertThat(page.getErrorMessage()).contains("Invalid search cursor");
+    }
+
+    private PostgresSearchConfig.PostgresSearchConfigBuilder config() {
+        return PostgresSearchConfig.builder()
+                .luceneIndexPath(tempDir.resolve("index").toString())
+                .entityType("item")
+                .entityClass(Item.class);
+    }
+
+    private LuceneSearchEngine<Item> open(PostgresSearchConfig config) {
+        try {
+            return new LuceneSearchEngine<>(config);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<Item> items(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Item(prefix + i, "phone " + prefix + " case".repeat(i % 3)))
+                .toList();
+    }
+
+    private static List<String> ids(SearchResponse<Item> response) {
+        return response.getResults().stream().map(SearchResult::getEntity).map(Item::getId).toList();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item implements SearchableEntity {
+        private String id;
+        private String name;
+
+        @Override
+        public String getEntityType() {
+            return "item";
+        }
+
+        @Override
+        public String getSearchableContent() {
+            return name;
+        }
+
+        @Override
+        public Map<String, String> getSearchableFields() {
+            return Map.of("name", name);
+        }
+    }
+}
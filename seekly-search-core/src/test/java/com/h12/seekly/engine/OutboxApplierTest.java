@@ -0,0 +1,258 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.config.PostgresSearchConfig;
+import com.h12.seekly.core.WriteOptions;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxApplierTest {
+
+    private static final String OUTBOX = "seekly_item_outbox";
+    private static final String DOCUMENTS = "seekly_item_documents";
+    private static final WriteOptions VISIBLE = WriteOptions.builder().waitForVisibility(true).build();
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TempDir
+    Path tempDir;
+
+    private final PGSimpleDataSource dataSource = new PGSimpleDataSource();
+    private LuceneIndexManager indexManager;
+    private OutboxApplier applier;
+
+    @BeforeEach
+    void createTables() throws SQLException {
+        dataSource.setUrl(POSTGRES.getJdbcUrl());
+        dataSource.setUser(POSTGRES.getUsername());
+        dataSource.setPassword(POSTGRES.getPassword());
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS " + OUTBOX + ", " + DOCUMENTS);
+            stmt.execute(OutboxApplier.createTableSql(OUTBOX));
+            stmt.execute("CREATE TABLE " + DOCUMENTS
+                    + " (id VARCHAR(255) PRIMARY KEY, entity_data TEXT, entity_data_bin BYTEA)");
+        }
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        if (applier != null) {
+            applier.close();
+        }
+        if (indexManager != null) {
+            indexManager.close();
+        }
+    }
+
+    @Test
+    void entriesLeftByAPreviousRunAreReplayedOnStart() throws Exception {
+        // Recorded and committed in PostgreSQL, but never applied before the process stopped
+        try (Connection conn = dataSource.getConnection()) {
+            upsert(conn, "a", "red phone");
+            upsert(conn, "b", "blue phone");
+        }
+        insertOutbox("a", "b");
+
+        start("index", 3_600_000);
+
+        awaitTrue(() -> count("phone") == 2);
+        assertThat(outboxSize()).isEqualTo(2);
+    }
+
+    @Test
+    void uncommittedIndexChangesAreReplayedAfterACrash() throws Exception {
+        start("index", 3_600_000);
+        applier.afterWrite(write("a", "red phone"), VISIBLE);
+        assertThat(count("phone")).isEqualTo(1);
+
+        // The index never committed the change, so the entry must still be there to replay
+        applier.close();
+        applier = null;
+        indexManager.close();
+        assertThat(outboxSize()).isEqualTo(1);
+
+        start("recovered", 3_600_000);
+        awaitTrue(() -> count("phone") == 1);
+    }
+
+    @Test
+    void lateCommittingTransactionWithALowerSequenceIsApplied() throws Exception {
+        start("index", 3_600_000);
+
+        try (Connection late = dataSource.getConnection()) {
+            late.setAutoCommit(false);
+            upsert(late, "a", "red phone");
+            long lateSequence = applier.record(late, List.of("a"));
+
+            long sequence = write("b", "blue phone");
+            assertThat(lateSequence).isLessThan(sequence);
+            applier.afterWrite(sequence, VISIBLE);
+            assertThat(count("phone")).isEqualTo(1);
+
+            late.commit();
+            applier.afterWrite(lateSequence, VISIBLE);
+        }
+
+        assertThat(count("phone")).isEqualTo(2);
+    }
+
+    @Test
+    void entriesAreDeletedOnlyOnceACommitCoversThem() throws Exception {
+        start("index", 3_600_000);
+        applier.afterWrite(write("a", "red phone"), VISIBLE);
+
+        // Later passes run, but nothing is committed yet
+        applier.afterWrite(write("b", "blue phone"), VISIBLE);
+        assertThat(outboxSize()).isEqualTo(2);
+
+        indexManager.commit();
+        applier.afterWrite(write("c", "green phone"), VISIBLE);
+        assertThat(outboxSize()).isEqualTo(1);
+    }
+
+    @Test
+    void waitForCommitReturnsOnceTheChangeIsDurable() throws Exception {
+        start("index", 3_600_000);
+
+        applier.afterWrite(write("a", "red phone"), WriteOptions.builder().waitForCommit(true).build());
+
+        try (DirectoryReader committed = DirectoryReader.open(indexManager.getDirectory())) {
+            assertThat(new IndexSearcher(committed).count(new TermQuery(new Term("content", "phone"))))
+                    .isEqualTo(1);
+        }
+        // The commit covers the entry, so the next pass removes it
+        applier.afterWrite(write("b", "blue phone"), VISIBLE);
+        assertThat(outboxSize()).isEqualTo(1);
+    }
+
+    @Test
+    void deletedRowsAreDeletedFromTheIndex() throws Exception {
+        start("index", 3_600_000);
+        applier.afterWrite(write("a", "red phone"), VISIBLE);
+
+        long sequence;
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + DOCUMENTS + " WHERE id = ?")) {
+                stmt.setString(1, "a");
+                stmt.executeUpdate();
+            }
+            sequence = applier.record(conn, List.of("a"));
+            conn.commit();
+        }
+        applier.afterWrite(sequence, VISIBLE);
+
+        assertThat(count("phone")).isZero();
+    }
+
+    private void start(String indexName, long commitIntervalMs) throws IOException {
+        indexManager = new LuceneIndexManager(PostgresSearchConfig.builder()
+                .luceneIndexPath(tempDir.resolve(indexName).toString())
+                .entityType("item")
+                .commitIntervalMs(commitIntervalMs)
+                .commitMaxDocs(0)
+                .build(), new StandardAnalyzer());
+        applier = new OutboxApplier(dataSource, indexManager, OutboxApplierTest::document,
+                new ReentrantReadWriteLock().readLock(), OUTBOX, DOCUMENTS, "item", 10, 50);
+    }
+
+    private static Document document(ResultSet rs) throws SQLException {
+        Document doc = new Document();
+        doc.add(new StringField("id", rs.getString("entity_id"), Field.Store.YES));
+        doc.add(new TextField("content", rs.getString("entity_data"), Field.Store.YES));
+        return doc;
+    }
+
+    /**
+     * Store the row and its outbox entry in one transaction
+     *
+     * @return outbox sequence
+     */
+    private long write(String id, String content) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            upsert(conn, id, content);
+            long sequence = applier.record(conn, List.of(id));
+            conn.commit();
+            return sequence;
+        }
+    }
+
+    private void upsert(Connection conn, String id, String content) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + DOCUMENTS
+                + " (id, entity_data) VALUES (?, ?) ON CONFLICT (id) DO UPDATE SET entity_data = EXCLUDED.entity_data")) {
+            stmt.setString(1, id);
+            stmt.setString(2, content);
+            stmt.executeUpdate();
+        }
+    }
+
+    private void insertOutbox(String... ids) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + OUTBOX + " (entity_id) VALUES (?)")) {
+            for (String id : ids) {
+                stmt.setString(1, id);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private long outboxSize() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT count(*) FROM " + OUTBOX)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private int count(String term) {
+        try {
+            indexManager.refresh();
+            IndexSearcher searcher = indexManager.acquireSearcher();
+            try {
+                return searcher.count(new TermQuery(new Term("content", term)));
+            } finally {
+                indexManager.releaseSearcher(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
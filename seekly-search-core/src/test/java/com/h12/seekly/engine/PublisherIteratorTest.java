@@ -0,0 +1,155 @@
+package com.h12.seekly.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublisherIteratorTest {
+
+    @Test
+    void initialDemandIsTheBufferSize() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        PublisherIterator<Integer> iterator = new PublisherIterator<>(4);
+
+        iterator.onSubscribe(subscription);
+
+        assertThat(subscription.requested).hasValue(4);
+    }
+
+    @Test
+    void demandIsReplenishedOneItemAtATime() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        PublisherIterator<Integer> iterator = new PublisherIterator<>(3);
+        iterator.onSubscribe(subscription);
+
+        long delivered = 0;
+        List<Integer> consumed = new ArrayList<>();
+        for (int round = 0; round < 5; round++) {
+            // Deliver exactly what was requested; the buffer must never overflow
+            while (delivered < subscription.requested.get()) {
+                iterator.onNext((int) delivered++);
+            }
+            assertThat(delivered - consumed.size()).isLessThanOrEqualTo(3);
+            consumed.add(iterator.next());
+        }
+
+        assertThat(consumed).containsExactly(0, 1, 2, 3, 4);
+        assertThat(subscription.requested).hasValue(3 + 5);
+    }
+
+    @Test
+    void nonPositiveBufferSizeStillRequestsOneItem() {
+        RecordingSubscription subscription = new RecordingSubscription();
+
+        new PublisherIterator<Integer>(0).onSubscribe(subscription);
+
+        assertThat(subscription.requested).hasValue(1);
+    }
+
+    @Test
+    void completionEndsTheIteration() {
+        PublisherIterator<String> iterator = new PublisherIterator<>(2);
+        iterator.onSubscribe(new RecordingSubscription());
+        iterator.onNext("a");
+        iterator.onNext("b");
+        // The terminal signal fits even though the buffer is full
+        iterator.onComplete();
+
+        assertThat(iterator.next()).isEqualTo("a");
+        assertThat(iterator.next()).isEqualTo("b");
+        assertThat(iterator.hasNext()).isFalse();
+        assertThat(iterator.hasNext()).isFalse();
+        assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void publisherFailureIsRethrownAfterBufferedItems() {
+        PublisherIterator<String> iterator = new PublisherIterator<>(2);
+        iterator.onSubscribe(new RecordingSubscription());
+        RuntimeException failure = new RuntimeException("source failed");
+        iterator.onNext("a");
+        iterator.onError(failure);
+
+        assertThat(iterator.next()).isEqualTo("a");
+        assertThatThrownBy(iterator::hasNext)
+                .isInstanceOf(IllegalStateException.class)
+                .hasCause(failure);
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    void cancelCancelsTheSubscription() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        PublisherIterator<String> iterator = new PublisherIterator<>(2);
+        iterator.cancel();
+        iterator.onSubscribe(subscription);
+
+        iterator.cancel();
+
+        assertThat(subscription.cancelled).isTrue();
+    }
+
+    @Test
+    void consumeDeliversEveryPublishedItemInOrder() throws Exception {
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+            CompletableFuture<List<Integer>> consumed = PublisherIterator.consume(publisher, 8, "test-consumer",
+                    iterator -> {
+                        List<Integer> items = new ArrayList<>();
+                        iterator.forEachRemaining(items::add);
+                        return items;
+                    });
+
+            for (int i = 0; i < 1000; i++) {
+                publisher.submit(i);
+            }
+            publisher.close();
+
+            List<Integer> items = consumed.get(10, TimeUnit.SECONDS);
+            assertThat(items).hasSize(1000);
+            assertThat(items).isSorted();
+        }
+    }
+
+    @Test
+    void failingConsumerCancelsTheSubscription() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        Flow.Publisher<Integer> publisher = subscriber -> subscriber.onSubscribe(subscription);
+
+        CompletableFuture<Object> consumed = PublisherIterator.consume(publisher, 4, "test-consumer",
+                iterator -> {
+                    throw new IllegalArgumentException("bad item");
+                });
+
+        assertThatThrownBy(() -> consumed.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(subscription.cancelled).isTrue();
+    }
+
+    private static final class RecordingSubscription implements Flow.Subscription {
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested.addAndGet(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
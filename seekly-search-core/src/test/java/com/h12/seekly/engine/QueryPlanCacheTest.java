@@ -0,0 +1,112 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.CacheStats;
+import com.h12.seekly.core.SearchOptions;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryPlanCacheTest {
+
+    private final SearchOptions options = SearchOptions.builder().build();
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    @Test
+    void equivalentQueryTextSharesOnePlan() {
+        QueryPlanCache cache = new QueryPlanCache(10);
+
+        Query first = cache.get("  Red   Phone ", options, compiler("red phone"));
+        Query second = cache.get("red phone", options, compiler("red phone"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(compilations).hasValue(1);
+        assertThat(cache.getStats().getHitCount()).isEqualTo(1);
+        assertThat(cache.getStats().getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void optionsThatChangeCompilationArePartOfTheKey() {
+        QueryPlanCache cache = new QueryPlanCache(10);
+
+        cache.get("phone", options, compiler("phone"));
+        cache.get("phone", options.toBuilder().fuzzyMatching(true).build(), compiler("phone"));
+        cache.get("phone", options.toBuilder().searchFields(List.of("name")).build(), compiler("phone"));
+        cache.get("phone", options.toBuilder().maxResults(50).offset(10).build(), compiler("phone"));
+
+        // Paging does not affect the compiled query
+        assertThat(compilations).hasValue(3);
+    }
+
+    @Test
+    void leastRecentlyUsedPlanIsEvicted() {
+        QueryPlanCache cache = new QueryPlanCache(2);
+
+        Query a = cache.get("a", options, compiler("a"));
+        cache.get("b", options, compiler("b"));
+        cache.get("a", options, compiler("a"));
+        cache.get("c", options, compiler("c"));
+
+        assertThat(cache.get("a", options, compiler("a"))).isSameAs(a);
+        cache.get("b", options, compiler("b"));
+
+        CacheStats stats = cache.getStats();
+        assertThat(compilations).hasValue(4);
+        assertThat(stats.getEvictionCount()).isEqualTo(2);
+        assertThat(stats.getSize()).isEqualTo(2);
+        assertThat(stats.getRamBytesUsed()).isPositive();
+    }
+
+    @Test
+    void clearDropsEveryPlan() {
+        QueryPlanCache cache = new QueryPlanCache(10);
+        cache.get("a", options, compiler("a"));
+
+        cache.clear();
+        cache.get("a", options, compiler("a"));
+
+        assertThat(compilations).hasValue(2);
+        assertThat(cache.getStats().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void planCompiledAcrossAClearIsNotStored() {
+        QueryPlanCache cache = new QueryPlanCache(10);
+
+        // The clear lands while the plan is being compiled, as when a new searchable field is registered
+        Query stale = cache.get("a", options, () -> {
+            cache.clear();
+            return compiler("a").get();
+        });
+        Query fresh = cache.get("a", options, compiler("a"));
+
+        assertThat(fresh).isNotSameAs(stale);
+        assertThat(compilations).hasValue(2);
+        assertThat(cache.get("a", options, compiler("a"))).isSameAs(fresh);
+    }
+
+    @Test
+    void disabledCacheAlwaysCompiles() {
+        QueryPlanCache cache = new QueryPlanCache(0);
+
+        cache.get("a", options, compiler("a"));
+        cache.get("a", options, compiler("a"));
+
+        assertThat(compilations).hasValue(2);
+        assertThat(cache.getStats().isEnabled()).isFalse();
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    private Supplier<Query> compiler(String text) {
+        return () -> {
+            compilations.incrementAndGet();
+            return new TermQuery(new Term("content", text));
+        };
+    }
+}
@@ -0,0 +1,170 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.SearchOptions;
+import com.h12.seekly.core.SearchResponse;
+import com.h12.seekly.core.SearchResult;
+import com.h12.seekly.core.SearchableEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultCacheTest {
+
+    private static final long RAM_BYTES = 1024 * 1024;
+
+    private final SearchOptions options = SearchOptions.builder().maxResults(10).build();
+
+    @Test
+    void cachedResponseIsReturnedForEquivalentSearches() {
+        ResultCache<Item> cache = new ResultCache<>(10, RAM_BYTES, 100);
+        cache.put("Red Phone", Map.of("category", "phone"), options, response("a", "b"), cache.generation());
+
+        SearchResponse<Item> cached = cache.get(" red  phone", Map.of("category", "phone"),
+                options.toBuilder().userId("someone").sessionId("session").build());
+
+        assertThat(cached).isNotNull();
+        assertThat(ids(cached)).containsExactly("a", "b");
+        assertThat(cache.get("red phone", Map.of("category", "case"), options)).isNull();
+        assertThat(cache.get("red phone", Map.of("category", "phone"), options.toBuilder().maxResults(5).build()))
+                .isNull();
+        assertThat(cache.getStats().getHitCount()).isEqualTo(1);
+        assertThat(cache.getStats().getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void callersGetTheirOwnCopy() {
+        ResultCache<Item> cache = new ResultCache<>(10, RAM_BYTES, 100);
+        cache.put("phone", null, options, response("a"), cache.generation());
+
+        cache.get("phone", null, options).getResults().clear();
+
+        assertThat(ids(cache.get("phone", null, options))).containsExactly("a");
+    }
+
+    @Test
+    void responseOfASearchThatStartedBeforeARefreshIsNotStored() {
+        ResultCache<Item> cache = new ResultCache<>(10, RAM_BYTES, 100);
+        long generation = cache.generation();
+
+        cache.invalidate();
+        cache.put("phone", null, options, response("a"), generation);
+
+        assertThat(cache.get("phone", null, options)).isNull();
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    @Test
+    void invalidateDropsEveryEntry() {
+        ResultCache<Item> cache = new ResultCache<>(10, RAM_BYTES, 100);
+        cache.put("phone", null, options, response("a"), cache.generation());
+        cache.put("case", null, options, response("b"), cache.generation());
+
+        cache.invalidate();
+
+        assertThat(cache.get("phone", null, options)).isNull();
+        assertThat(cache.getStats().getSize()).isZero();
+        assertThat(cache.getStats().getRamBytesUsed()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedByCount() {
+        ResultCache<Item> cache = new ResultCache<>(2, RAM_BYTES, 100);
+        long generation = cache.generation();
+        cache.put("a", null, options, response("a"), generation);
+        cache.put("b", null, options, response("b"), generation);
+        cache.get("a", null, options);
+        cache.put("c", null, options, response("c"), generation);
+
+        assertThat(cache.get("a", null, options)).isNotNull();
+        assertThat(cache.get("b", null, options)).isNull();
+        assertThat(cache.get("c", null, options)).isNotNull();
+        assertThat(cache.getStats().getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void entriesAreEvictedToStayWithinTheMemoryBudget() {
+        ResultCache<Item> cache = new ResultCache<>(100, 4096, 100);
+        long generation = cache.generation();
+        for (int i = 0; i < 20; i++) {
+            cache.put("query " + i, null, options, response("item" + i), generation);
+        }
+
+        assertThat(cache.getStats().getRamBytesUsed()).isPositive().isLessThanOrEqualTo(4096);
+        assertThat(cache.getStats().getEvictionCount()).isPositive();
+        assertThat(cache.get("query 19", null, options)).isNotNull();
+        assertThat(cache.get("query 0", null, options)).isNull();
+    }
+
+    @Test
+    void deepCursorAndFailedSearchesAreNotCached() {
+        ResultCache<Item> cache = new ResultCache<>(10, RAM_BYTES, 20);
+        long generation = cache.generation();
+        SearchOptions deep = options.toBuilder().offset(15).build();
+        SearchOptions cursor = options.toBuilder().cursor("cursor").build();
+
+        cache.put("phone", null, deep, response("a"), generation);
+        cache.put("phone", null, cursor, response("a"), generation);
+        cache.put("failed", null, options, SearchResponse.<Item>builder()
+                .results(List.of()).success(false).build(), generation);
+
+        assertThat(cache.isCacheable(deep)).isFalse();
+        assertThat(cache.isCacheable(cursor)).isFalse();
+        assertThat(cache.get("failed", null, options)).isNull();
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        ResultCache<Item> cache = new ResultCache<>(0, RAM_BYTES, 100);
+        cache.put("phone", null, options, response("a"), cache.generation());
+
+        assertThat(cache.get("phone", null, options)).isNull();
+        assertThat(cache.getStats().isEnabled()).isFalse();
+    }
+
+    private static SearchResponse<Item> response(String... ids) {
+        List<SearchResult<Item>> results = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            results.add(SearchResult.<Item>builder()
+                    .entity(new Item(ids[i], "item " + ids[i] + " with some searchable content"))
+                    .rank(i + 1)
+                    .build());
+        }
+        return SearchResponse.<Item>builder()
+                .results(results)
+                .totalHits(ids.length)
+                .success(true)
+                .build();
+    }
+
+    private static List<String> ids(SearchResponse<Item> response) {
+        return response.getResults().stream().map(result -> result.getEntity().getId()).toList();
+    }
+
+    private record Item(String id, String content) implements SearchableEntity {
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public String getEntityType() {
+            return "item";
+        }
+
+        @Override
+        public String getSearchableContent() {
+            return content;
+        }
+
+        @Override
+        public Map<String, String> getSearchableFields() {
+            return Map.of("content", content);
+        }
+    }
+}
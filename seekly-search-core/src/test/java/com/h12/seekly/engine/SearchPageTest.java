@@ -0,0 +1,181 @@
+package com.h12.seekly.engine;
+
+import com.h12.seekly.core.SearchOptions;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchPageTest {
+
+    private static final int MATCHING = 47;
+    private static final int MAX_RESULT_WINDOW = 20;
+
+    private final Query query = new TermQuery(new Term("name", "phone"));
+
+    private Directory directory;
+    private IndexWriter writer;
+    private DirectoryReader reader;
+
+    @BeforeEach
+    void indexDocuments() throws IOException {
+        directory = new ByteBuffersDirectory();
+        writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()));
+        for (int i = 0; i < MATCHING + 10; i++) {
+            // Three distinct scores with many ties, so paging relies on the doc ID tie-break
+            String name = i >= MATCHING ? "charger" : "phone" + " case".repeat(i % 3);
+            add("doc" + i, name);
+        }
+        writer.commit();
+        reader = DirectoryReader.open(writer);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        reader.close();
+        writer.close();
+        directory.close();
+    }
+
+    @Test
+    void cursorPagesCoverEveryHitOnceInRankOrder() throws IOException {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        ScoreDoc[] expected = searcher.search(query, MATCHING).scoreDocs;
+
+        List<Integer> paged = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        String cursor = null;
+        do {
+            SearchPage page = SearchPage.collect(searcher, query,
+                    SearchOptions.builder().maxResults(7).cursor(cursor).build(), MAX_RESULT_WINDOW);
+            starts.add(page.getStart());
+            assertThat(page.getTotalHits()).isEqualTo(MATCHING);
+            Arrays.stream(page.getHits()).forEach(hit -> paged.add(hit.doc));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(paged).containsExactlyElementsOf(Arrays.stream(expected).map(hit -> hit.doc).toList());
+        assertThat(starts).containsExactly(0, 7, 14, 21, 28, 35, 42);
+    }
+
+    @Test
+    void cursorPagingIsNotLimitedByTheResultWindow() throws IOException {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        SearchPage first = SearchPage.collect(searcher, query,
+                SearchOptions.builder().maxResults(MAX_RESULT_WINDOW).build(), MAX_RESULT_WINDOW);
+        SearchPage second = SearchPage.collect(searcher, query,
+                SearchOptions.builder().maxResults(MAX_RESULT_WINDOW).cursor(first.getNextCursor()).build(),
+                MAX_RESULT_WINDOW);
+
+        assertThat(second.getStart()).isEqualTo(MAX_RESULT_WINDOW);
+        assertThat(second.getHits()).hasSize(MAX_RESULT_WINDOW);
+    }
+
+    @Test
+    void offsetPagesMatchTheTopHits() throws IOException {
+        IndexSearcher searcher = new IndexSearcher(reader);
+        ScoreDoc[] expected = searcher.search(query, MAX_RESULT_WINDOW).scoreDocs;
+
+        SearchPage page = SearchPage.collect(searcher, query,
+                SearchOptions.builder().offset(15).maxResults(5).build(), MAX_RESULT_WINDOW);
+
+        assertThat(page.getStart()).isEqualTo(15);
+        assertThat(Arrays.stream(page.getHits()).map(hit -> hit.doc))
+                .containsExactlyElementsOf(Arrays.stream(expected, 15, 20).map(hit -> hit.doc).toList());
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void offsetBeyondTheResultWindowIsRejected() {
+        IndexSearcher searcher = new IndexSearcher(reader);
+
+        assertThatThrownBy(() -> SearchPage.collect(searcher, query,
+                SearchOptions.builder().offset(16).maxResults(5).build(), MAX_RESULT_WINDOW))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Result window is too large");
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws IOException {
+        IndexSearcher searcher = new IndexSearcher(reader);
+
+        SearchPage page = SearchPage.collect(searcher, new TermQuery(new Term("name", "charger")),
+                SearchOptions.builder().maxResults(20).build(), MAX_RESULT_WINDOW);
+
+        assertThat(page.getHits()).hasSize(10);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorOfAnotherIndexVersionIsRejected() throws IOException {
+        String cursor = SearchPage.collect(new IndexSearcher(reader), query,
+                SearchOptions.builder().maxResults(5).build(), MAX_RESULT_WINDOW).getNextCursor();
+
+        add("late", "phone");
+        DirectoryReader refreshed = DirectoryReader.openIfChanged(reader);
+        assertThat(refreshed).isNotNull();
+        reader.close();
+        reader = refreshed;
+
+        assertThatThrownBy(() -> SearchPage.collect(new IndexSearcher(reader), query,
+                SearchOptions.builder().maxResults(5).cursor(cursor).build(), MAX_RESULT_WINDOW))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        IndexSearcher searcher = new IndexSearcher(reader);
+
+        for (String cursor : List.of("not base64!", "AAAA")) {
+            assertThatThrownBy(() -> SearchPage.collect(searcher, query,
+                    SearchOptions.builder().cursor(cursor).build(), MAX_RESULT_WINDOW))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Invalid search cursor");
+        }
+    }
+
+    @Test
+    void facetHitsAreCollectedOnlyWhenRequested() throws IOException {
+        IndexSearcher searcher = new IndexSearcher(reader);
+
+        SearchPage withFacets = SearchPage.collect(searcher, query, SearchOptions.builder()
+                .maxResults(5).includeFacets(true).facetFields(List.of("category")).build(), MAX_RESULT_WINDOW);
+        SearchPage withoutFacets = SearchPage.collect(searcher, query,
+                SearchOptions.builder().maxResults(5).build(), MAX_RESULT_WINDOW);
+
+        assertThat(withFacets.getFacetHits()).isNotNull();
+        assertThat(withFacets.getFacetHits().getMatchingDocs().stream()
+                .mapToInt(docs -> docs.totalHits()).sum()).isEqualTo(MATCHING);
+        assertThat(withoutFacets.getFacetHits()).isNull();
+    }
+
+    private void add(String id, String name) throws IOException {
+        Document doc = new Document();
+        doc.add(new StringField("id", id, Field.Store.YES));
+        doc.add(new TextField("name", name, Field.Store.NO));
+        writer.addDocument(doc);
+    }
+}
@@ -0,0 +1,43 @@
+package com.h12.seekly.metrics;
+
+import com.h12.seekly.store.JdbcBlockCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchMetricsCollectorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SearchMetricsCollector collector = new SearchMetricsCollector(registry, "test");
+
+    @Test
+    void blockCacheMetersAreTaggedByCacheName() throws IOException {
+        JdbcBlockCache blockCache = new JdbcBlockCache(1024 * 1024);
+        collector.registerBlockCache("index-blocks", blockCache);
+
+        blockCache.get("file", 0, () -> new byte[16]);
+        blockCache.get("file", 0, () -> new byte[16]);
+        // The meters must not depend on a supplier that only they reference
+        System.gc();
+
+        FunctionCounter hits = registry.get("test_block_cache_hits_total").tag("cache", "index-blocks")
+                .functionCounter();
+        assertThat(hits.count()).isEqualTo(1);
+        assertThat(registry.get("test_block_cache_misses_total").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("test_block_cache_memory_bytes").gauge().value()).isEqualTo(16);
+        assertThat(registry.get("test_block_cache_hits_total").meter().getId().getTag("entity_type")).isNull();
+    }
+
+    @Test
+    void blockCacheIsRegisteredOncePerName() {
+        collector.registerBlockCache("index-blocks", new JdbcBlockCache(1024 * 1024));
+        collector.registerBlockCache("index-blocks", new JdbcBlockCache(1024 * 1024));
+        collector.registerBlockCache("other-blocks", new JdbcBlockCache(1024 * 1024));
+
+        assertThat(registry.find("test_block_cache_hits_total").functionCounters()).hasSize(2);
+    }
+}
@@ -0,0 +1,114 @@
+package com.h12.seekly.store;
+
+import com.h12.seekly.entity.DbFile;
+import com.h12.seekly.entity.DbFileData;
+import com.h12.seekly.entity.Index;
+import com.h12.seekly.repo.DbFileDataRepo;
+import com.h12.seekly.repo.DbFileRepo;
+import com.h12.seekly.repo.IndexRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-ins for the repositories behind {@link JdbcDirectoryStore},
+ * implementing only the methods the directory and its streams call
+ */
+class InMemoryFileRepos {
+
+    final Map<String, DbFile> files = new ConcurrentHashMap<>();
+    final Map<String, DbFileData> chunks = new ConcurrentHashMap<>();
+    final Map<String, Index> indexes = new ConcurrentHashMap<>();
+    final AtomicLong chunkReads = new AtomicLong();
+
+    final DbFileRepo fileRepo = proxy(DbFileRepo.class, (proxy, method, args) -> switch (method.getName()) {
+        case "save" -> {
+            DbFile file = (DbFile) args[0];
+            if (file.getId() == null) {
+                file.setId(UUID.randomUUID().toString());
+            }
+            files.put(file.getId(), file);
+            yield file;
+        }
+        case "findByFilePathAndNameAndIsDeletedFalse" -> files.values().stream()
+                .filter(file -> isLive(file, args[0], args[1]))
+                .findFirst();
+        case "existsByFilePathAndNameAndIsDeletedFalse" -> files.values().stream()
+                .anyMatch(file -> isLive(file, args[0], args[1]));
+        case "findNamesByFilePath" -> files.values().stream()
+                .filter(file -> !file.getIsDeleted() && file.getFilePath().equals(args[0]))
+                .map(DbFile::getName)
+                .toList();
+        case "deleteWithChunks" -> {
+            files.remove((String) args[0]);
+            chunks.values().removeIf(chunk -> args[0].equals(chunk.getFileId()));
+            yield null;
+        }
+        case "deleteMarkedWithChunks" -> {
+            // Counts files, with or without chunks, like the SQL
+            int deleted = 0;
+            for (DbFile file : files.values()) {
+                if (file.getIsDeleted() && file.getFilePath().equals(args[0])) {
+                    files.remove(file.getId());
+                    chunks.values().removeIf(chunk -> file.getId().equals(chunk.getFileId()));
+                    deleted++;
+                }
+            }
+            yield deleted;
+        }
+        default -> throw new UnsupportedOperationException(method.getName());
+    });
+
+    final DbFileDataRepo dataRepo = proxy(DbFileDataRepo.class, (proxy, method, args) -> switch (method.getName()) {
+        case "save" -> {
+            DbFileData chunk = (DbFileData) args[0];
+            chunk.setId(UUID.randomUUID().toString());
+            chunks.put(chunk.getId(), chunk);
+            yield chunk;
+        }
+        case "findByFileIdAndChunkIndex" -> {
+            chunkReads.incrementAndGet();
+            yield chunks.values().stream()
+                    .filter(chunk -> args[0].equals(chunk.getFileId()) && chunk.getChunkIndex() == (int) args[1])
+                    .findFirst();
+        }
+        default -> throw new UnsupportedOperationException(method.getName());
+    });
+
+    final IndexRepository indexRepo = proxy(IndexRepository.class, (proxy, method, args) ->
+            switch (method.getName()) {
+                case "findByIndexName" -> Optional.ofNullable(indexes.get((String) args[0]));
+                case "save" -> {
+                    Index index = (Index) args[0];
+                    indexes.put(index.getIndexName(), index);
+                    yield index;
+                }
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+
+    /**
+     * Stored chunks of a file by chunk index
+     */
+    Map<Integer, byte[]> chunksOf(String fileId) {
+        Map<Integer, byte[]> byIndex = new ConcurrentHashMap<>();
+        chunks.values().stream()
+                .filter(chunk -> fileId.equals(chunk.getFileId()))
+                .forEach(chunk -> byIndex.put(chunk.getChunkIndex(), chunk.getData()));
+        return byIndex;
+    }
+
+    private static boolean isLive(DbFile file, Object filePath, Object name) {
+        return !file.getIsDeleted() && file.getFilePath().equals(filePath) && Objects.equals(file.getName(), name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R proxy(Class<R> type, InvocationHandler handler) {
+        return (R) Proxy.newProxyInstance(InMemoryFileRepos.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,141 @@
+package com.h12.seekly.store;
+
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.SingleInstanceLockFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcDirectoryStoreTest {
+
+    private static final int CHUNK_SIZE = 16;
+
+    private final InMemoryFileRepos repos = new InMemoryFileRepos();
+    private JdbcDirectoryStore directory;
+
+    @BeforeEach
+    void openDirectory() {
+        directory = new JdbcDirectoryStore(repos.indexRepo, repos.fileRepo, repos.dataRepo, "test", CHUNK_SIZE,
+                null, new SingleInstanceLockFactory());
+    }
+
+    @AfterEach
+    void closeDirectory() throws IOException {
+        directory.close();
+    }
+
+    @Test
+    void deleteOfAClosedFileRemovesItsChunks() throws IOException {
+        write("a", 40);
+        write("b", 10);
+
+        directory.deleteFile("a");
+
+        assertThat(directory.listAll()).containsExactly("b");
+        assertThat(repos.files).hasSize(1);
+        assertThat(repos.chunks).hasSize(1);
+        assertThat(directory.getPendingDeletions()).isEmpty();
+        assertThatThrownBy(() -> directory.openInput("a", IOContext.DEFAULT))
+                .isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void deleteOfAnOpenFileWaitsForTheLastInputToClose() throws IOException {
+        write("a", 40);
+        IndexInput first = directory.openInput("a", IOContext.DEFAULT);
+        IndexInput second = directory.openInput("a", IOContext.DEFAULT);
+        IndexInput clone = first.clone();
+
+        directory.deleteFile("a");
+
+        // Hidden from the directory, but still readable through the open inputs
+        assertThat(directory.listAll()).isEmpty();
+        assertThat(directory.getPendingDeletions()).containsExactly("a");
+        first.seek(39);
+        first.readByte();
+
+        first.close();
+        clone.close();
+        assertThat(repos.chunks).hasSize(3);
+        second.readByte();
+
+        second.close();
+        assertThat(directory.getPendingDeletions()).isEmpty();
+        assertThat(repos.files).isEmpty();
+        assertThat(repos.chunks).isEmpty();
+    }
+
+    @Test
+    void nameOfADeferredDeleteCanBeReused() throws IOException {
+        write("a", 40);
+        try (IndexInput input = directory.openInput("a", IOContext.DEFAULT)) {
+            directory.deleteFile("a");
+
+            write("a", 5);
+
+            assertThat(directory.fileLength("a")).isEqualTo(5);
+            assertThat(input.length()).isEqualTo(40);
+        }
+        assertThat(repos.files).hasSize(1);
+        assertThat(directory.fileLength("a")).isEqualTo(5);
+    }
+
+    @Test
+    void purgeRemovesFilesLeftMarkedDeleted() throws IOException {
+        write("a", 40);
+        write("b", 10);
+        write("empty", 0);
+        directory.openInput("a", IOContext.DEFAULT);
+        directory.openInput("empty", IOContext.DEFAULT);
+        directory.deleteFile("a");
+        directory.deleteFile("empty");
+
+        // A new directory over the same rows, as after a restart with the input never closed
+        JdbcDirectoryStore restarted = new JdbcDirectoryStore(repos.indexRepo, repos.fileRepo, repos.dataRepo, "test",
+                CHUNK_SIZE, null, new SingleInstanceLockFactory());
+
+        // A file without chunks still counts
+        assertThat(restarted.purgeDeletedFiles()).isEqualTo(2);
+        assertThat(restarted.listAll()).containsExactly("b");
+        assertThat(repos.chunks).hasSize(1);
+        restarted.close();
+    }
+
+    @Test
+    void createOutputRejectsAnExistingName() throws IOException {
+        write("a", 1);
+
+        assertThatThrownBy(() -> directory.createOutput("a", IOContext.DEFAULT))
+                .isInstanceOf(FileAlreadyExistsException.class);
+    }
+
+    @Test
+    void renameKeepsTheChunks() throws IOException {
+        write("a", 40);
+
+        directory.rename("a", "b");
+
+        assertThat(directory.listAll()).containsExactly("b");
+        try (IndexInput input = directory.openInput("b", IOContext.DEFAULT)) {
+            input.seek(39);
+            assertThat(input.readByte()).isEqualTo((byte) 39);
+        }
+    }
+
+    private void write(String name, int length) throws IOException {
+        try (IndexOutput output = directory.createOutput(name, IOContext.DEFAULT)) {
+            for (int i = 0; i < length; i++) {
+                output.writeByte((byte) i);
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.h12.seekly.store;
+
+import com.h12.seekly.entity.DbFile;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.CheckIndex;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.lucene.store.SingleInstanceLockFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcIndexStreamsTest {
+
+    private static final int CHUNK_SIZE = 16;
+
+    private final InMemoryFileRepos repos = new InMemoryFileRepos();
+    private JdbcDirectoryStore directory;
+
+    @BeforeEach
+    void openDirectory() {
+        directory = new JdbcDirectoryStore(repos.indexRepo, repos.fileRepo, repos.dataRepo, "test", CHUNK_SIZE,
+                null, new SingleInstanceLockFactory());
+    }
+
+    @AfterEach
+    void closeDirectory() throws IOException {
+        directory.close();
+    }
+
+    @Test
+    void outputSplitsBytesIntoFullChunksAndAPartialLastChunk() throws IOException {
+        byte[] expected;
+        try (IndexOutput output = directory.createOutput("file", IOContext.DEFAULT)) {
+            ByteArrayOutputStream written = new ByteArrayOutputStream();
+            // Single bytes up to a boundary, then bulk writes that start mid-chunk and span several chunks
+            for (int i = 0; i < 5; i++) {
+                output.writeByte((byte) i);
+                written.write(i);
+            }
+            byte[] bulk = randomBytes(40, 1);
+            output.writeBytes(bulk, 0, bulk.length);
+            written.write(bulk);
+            output.writeBytes(bulk, 3, 0);
+            output.writeBytes(bulk, 7, 11);
+            written.write(bulk, 7, 11);
+            expected = written.toByteArray();
+
+            assertThat(output.getFilePointer()).isEqualTo(expected.length);
+            assertThat(output.getChecksum()).isEqualTo(crc(expected));
+        }
+
+        DbFile file = storedFile("file");
+        Map<Integer, byte[]> chunks = repos.chunksOf(file.getId());
+        assertThat(chunks).hasSize(4);
+        assertThat(chunks.get(0)).hasSize(CHUNK_SIZE);
+        assertThat(chunks.get(3)).hasSize(expected.length - 3 * CHUNK_SIZE);
+        assertThat(concat(chunks)).isEqualTo(expected);
+        assertThat(file.getFileSize()).isEqualTo(expected.length);
+        assertThat(file.getChecksum()).isEqualTo(crc(expected));
+        assertThat(directory.fileLength("file")).isEqualTo(expected.length);
+    }
+
+    @Test
+    void outputOfAnExactNumberOfChunksStoresNoEmptyChunk() throws IOException {
+        byte[] expected = randomBytes(2 * CHUNK_SIZE, 2);
+        write("file", expected);
+
+        Map<Integer, byte[]> chunks = repos.chunksOf(storedFile("file").getId());
+        assertThat(chunks).hasSize(2);
+        assertThat(concat(chunks)).isEqualTo(expected);
+    }
+
+    @Test
+    void emptyFileHasNoChunks() throws IOException {
+        write("empty", new byte[0]);
+
+        assertThat(repos.chunksOf(storedFile("empty").getId())).isEmpty();
+        try (IndexInput input = directory.openInput("empty", IOContext.DEFAULT)) {
+            assertThat(input.length()).isZero();
+            assertThatThrownBy(input::readByte).isInstanceOf(EOFException.class);
+        }
+    }
+
+    @Test
+    void inputReadsAcrossChunkBoundaries() throws IOException {
+        byte[] expected = randomBytes(5 * CHUNK_SIZE + 3, 3);
+        write("file", expected);
+
+        try (IndexInput input = directory.openInput("file", IOContext.DEFAULT)) {
+            assertThat(input.length()).isEqualTo(expected.length);
+
+            byte[] all = new byte[expected.length];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = input.readByte();
+            }
+            assertThat(all).isEqualTo(expected);
+
+            // Bulk read starting mid-chunk and spanning three chunks
+            input.seek(10);
+            byte[] spanning = new byte[2 * CHUNK_SIZE + 4];
+            input.readBytes(spanning, 0, spanning.length);
+            assertThat(spanning).isEqualTo(Arrays.copyOfRange(expected, 10, 10 + spanning.length));
+            assertThat(input.getFilePointer()).isEqualTo(10 + spanning.length);
+
+            // Backwards seek onto an exact boundary
+            input.seek(CHUNK_SIZE);
+            assertThat(input.readByte()).isEqualTo(expected[CHUNK_SIZE]);
+            input.seek(CHUNK_SIZE - 1);
+            byte[] boundary = new byte[2];
+            input.readBytes(boundary, 0, 2);
+            assertThat(boundary).containsExactly(expected[CHUNK_SIZE - 1], expected[CHUNK_SIZE]);
+        }
+    }
+
+    @Test
+    void slicesAndClonesReadIndependently() throws IOException {
+        byte[] expected = randomBytes(4 * CHUNK_SIZE, 4);
+        write("file", expected);
+
+        try (IndexInput input = directory.openInput("file", IOContext.DEFAULT)) {
+            IndexInput slice = input.slice("slice", 13, 30);
+            assertThat(slice.length()).isEqualTo(30);
+            byte[] sliced = new byte[30];
+            slice.readBytes(sliced, 0, 30);
+            assertThat(sliced).isEqualTo(Arrays.copyOfRange(expected, 13, 43));
+
+            IndexInput nested = slice.slice("nested", 5, 10);
+            assertThat(nested.readByte()).isEqualTo(expected[18]);
+            assertThatThrownBy(() -> slice.slice("outside", 25, 10)).isInstanceOf(IllegalArgumentException.class);
+
+            input.seek(20);
+            IndexInput clone = input.clone();
+            assertThat(clone.readByte()).isEqualTo(expected[20]);
+            assertThat(input.getFilePointer()).isEqualTo(20);
+            assertThat(input.readByte()).isEqualTo(expected[20]);
+        }
+    }
+
+    @Test
+    void readsAndSeeksPastTheEndFail() throws IOException {
+        write("file", randomBytes(CHUNK_SIZE + 1, 5));
+
+        try (IndexInput input = directory.openInput("file", IOContext.DEFAULT)) {
+            input.seek(CHUNK_SIZE + 1);
+            assertThatThrownBy(input::readByte).isInstanceOf(EOFException.class);
+            input.seek(CHUNK_SIZE - 1);
+            assertThatThrownBy(() -> input.readBytes(new byte[3], 0, 3)).isInstanceOf(EOFException.class);
+            assertThatThrownBy(() -> input.seek(CHUNK_SIZE + 2)).isInstanceOf(EOFException.class);
+            assertThatThrownBy(() -> input.slice("outside", CHUNK_SIZE, 2))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void missingChunkIsReportedAsCorruption() throws IOException {
+        write("file", randomBytes(3 * CHUNK_SIZE, 6));
+        String fileId = storedFile("file").getId();
+        repos.chunks.values().removeIf(chunk -> fileId.equals(chunk.getFileId()) && chunk.getChunkIndex() == 1);
+
+        try (IndexInput input = directory.openInput("file", IOContext.DEFAULT)) {
+            input.seek(CHUNK_SIZE - 1);
+            input.readByte();
+            assertThatThrownBy(input::readByte)
+                    .isInstanceOf(CorruptIndexException.class)
+                    .hasMessageContaining("Missing chunk 1");
+        }
+    }
+
+    @Test
+    void codecFooterChecksumMatchesTheStoredBytes() throws IOException {
+        try (IndexOutput output = directory.createOutput("codec", IOContext.DEFAULT)) {
+            CodecUtil.writeHeader(output, "test", 1);
+            byte[] body = randomBytes(3 * CHUNK_SIZE + 7, 7);
+            output.writeBytes(body, body.length);
+            CodecUtil.writeFooter(output);
+        }
+
+        try (IndexInput input = directory.openInput("codec", IOContext.DEFAULT)) {
+            long checksum = CodecUtil.checksumEntireFile(input);
+            assertThat(CodecUtil.retrieveChecksum(input)).isEqualTo(checksum);
+        }
+        // The stored checksum covers the whole file, footer included
+        DbFile file = storedFile("codec");
+        assertThat(file.getChecksum()).isEqualTo(crc(concat(repos.chunksOf(file.getId()))));
+    }
+
+    @Test
+    void luceneIndexRoundTripsThroughSmallChunks() throws IOException {
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new StandardAnalyzer()))) {
+            for (int i = 0; i < 500; i++) {
+                Document doc = new Document();
+                doc.add(new StringField("id", "id" + i, Field.Store.YES));
+                doc.add(new TextField("name", "item " + i + (i % 5 == 0 ? " lucky" : ""), Field.Store.YES));
+                writer.addDocument(doc);
+                if (i % 200 == 199) {
+                    writer.commit();
+                }
+            }
+            writer.forceMerge(1);
+        }
+
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            assertThat(searcher.count(new TermQuery(new Term("name", "lucky")))).isEqualTo(100);
+            assertThat(searcher.storedFields().document(
+                    searcher.search(new TermQuery(new Term("id", "id250")), 1).scoreDocs[0].doc).get("name"))
+                    .isEqualTo("item 250 lucky");
+        }
+        assertThat(new CheckIndex(directory).checkIndex().clean).isTrue();
+    }
+
+    private void write(String name, byte[] bytes) throws IOException {
+        try (IndexOutput output = directory.createOutput(name, IOContext.DEFAULT)) {
+            output.writeBytes(bytes, bytes.length);
+        }
+    }
+
+    private DbFile storedFile(String name) {
+        return repos.files.values().stream()
+                .filter(file -> file.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static byte[] concat(Map<Integer, byte[]> chunks) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < chunks.size(); i++) {
+            bytes.writeBytes(chunks.get(i));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 
 import java.io.IOException;
+import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor
@@ -28,11 +29,17 @@ public class BeanConfig {
                         .dbUsername(environment.getProperty("POSTGRES_USERNAME"))
                         .dbPassword(environment.getProperty("POSTGRES_PASSWORD"))
                         .entityType("product")
+                        .entityClass(Product.class)
                         .luceneIndexPath("./index/products")
+                        .combinedFieldScoring(true)
+                        .searchFieldWeights(Map.of("name", 3f, "brand", 2f, "category", 1.5f))
+                        .resultCacheMaxEntries(1000)
+                        .searchThreads(4)
                         .enableMetrics(true)
                         .enableQueryPerformance(true)
                         .build());
-//        return SearchEngineFactory.createLuceneSearchEngine("./index/", "product");
+//        return SearchEngineFactory.createLuceneSearchEngine(com.h12.seekly.config.PostgresSearchConfig.builder()
+//                .luceneIndexPath("./index/").entityType("product").build(), Product.class);
     }
 
     @Bean
@@ -43,16 +50,28 @@ public class BeanConfig {
                         .dbUsername(environment.getProperty("POSTGRES_USERNAME"))
                         .dbPassword(environment.getProperty("POSTGRES_PASSWORD"))
                         .entityType("seller")
+                        .entityClass(Seller.class)
                         .luceneIndexPath("./index/sellers")
+                        .combinedFieldScoring(true)
+                        .searchFieldWeights(Map.of("name", 3f, "city", 1.5f))
+                        .resultCacheMaxEntries(1000)
                         .enableMetrics(true)
                         .enableQueryPerformance(true)
                         .build());
-//        return SearchEngineFactory.createLuceneSearchEngine(
-//                "./index/lucene_sellers", "seller");
+//        return SearchEngineFactory.createLuceneSearchEngine(com.h12.seekly.config.PostgresSearchConfig.builder()
+//                .luceneIndexPath("./index/lucene_sellers").entityType("seller").build(), Seller.class);
     }
 
     @Bean
-    public SearchMetricsCollector searchMetricsCollector(MeterRegistry meterRegistry) throws IOException {
-        return new SearchMetricsCollector(meterRegistry, null);
+    public SearchMetricsCollector searchMetricsCollector(MeterRegistry meterRegistry,
+            SearchEngine<Product> searchEngine, SearchEngine<Seller> sellerEngine) throws IOException {
+        SearchMetricsCollector collector = new SearchMetricsCollector(meterRegistry, null);
+        collector.registerQueryCache("product", searchEngine::getQueryCacheStats);
+        collector.registerQueryCache("seller", sellerEngine::getQueryCacheStats);
+        collector.registerQueryPlanCache("product", searchEngine::getQueryPlanCacheStats);
+        collector.registerQueryPlanCache("seller", sellerEngine::getQueryPlanCacheStats);
+        collector.registerResultCache("product", searchEngine::getResultCacheStats);
+        collector.registerResultCache("seller", sellerEngine::getResultCacheStats);
+        return collector;
     }
 }
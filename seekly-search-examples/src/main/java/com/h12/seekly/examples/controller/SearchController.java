@@ -5,11 +5,16 @@ import com.h12.seekly.examples.entities.Product;
 import com.h12.seekly.metrics.SearchMetricsCollector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * REST controller for the Seekly search engine.
@@ -28,111 +33,109 @@ public class SearchController {
      * Basic search endpoint
      */
     @GetMapping("/products")
-    public ResponseEntity<SearchResponse<Product>> searchProducts(
+    public CompletableFuture<ResponseEntity<SearchResponse<Product>>> searchProducts(
             @RequestParam String query,
             @RequestParam(defaultValue = "20") int maxResults,
-            @RequestParam(defaultValue = "0") int offset) {
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) String cursor) {
 
         long startTime = System.currentTimeMillis();
 
-        try {
-            SearchOptions options = SearchOptions.builder()
-                    .maxResults(maxResults)
-                    .offset(offset)
-                    .includeHighlights(true)
-                    .trackMetrics(true)
-                    .build();
-
-            SearchResponse<Product> response = searchEngine.search(query, options);
-
-            // Record metrics
-            long duration = System.currentTimeMillis() - startTime;
-            metricsCollector.recordSearch(
-                    "product",
-                    query,
-                    duration,
-                    response.getResults().size(),
-                    0.0, // TODO: Calculate average score
-                    response.isSuccess(),
-                    response.getTotalHits() == 0);
-
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
-            log.error("Search failed for query: {}", query, e);
-
-            // Record failed search metrics
-            long duration = System.currentTimeMillis() - startTime;
-            metricsCollector.recordSearch(
-                    "product",
-                    query,
-                    duration,
-                    0,
-                    0.0,
-                    false,
-                    true);
-
-            return ResponseEntity.internalServerError().build();
-        }
+        SearchOptions options = SearchOptions.builder()
+                .maxResults(maxResults)
+                .offset(offset)
+                .cursor(cursor)
+                .includeHighlights(true)
+                .trackMetrics(true)
+                .build();
+
+        return searchEngine.searchAsync(query, options)
+                .thenApply(response -> {
+                    // Record metrics
+                    long duration = System.currentTimeMillis() - startTime;
+                    metricsCollector.recordSearch(
+                            "product",
+                            query,
+                            duration,
+                            response.getResults().size(),
+                            0.0, // TODO: Calculate average score
+                            response.isSuccess(),
+                            response.getTotalHits() == 0);
+
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    log.error("Search failed for query: {}", query, e);
+
+                    // Record failed search metrics
+                    long duration = System.currentTimeMillis() - startTime;
+                    metricsCollector.recordSearch(
+                            "product",
+                            query,
+                            duration,
+                            0,
+                            0.0,
+                            false,
+                            true);
+
+                    return ResponseEntity.status(errorStatus(e)).build();
+                });
     }
 
     /**
      * Advanced search with filters
      */
     @PostMapping("/products/advanced")
-    public ResponseEntity<SearchResponse<Product>> advancedSearch(
+    public CompletableFuture<ResponseEntity<SearchResponse<Product>>> advancedSearch(
             @RequestBody AdvancedSearchRequest request) {
 
         long startTime = System.currentTimeMillis();
 
-        try {
-            SearchOptions options = SearchOptions.builder()
-                    .maxResults(request.getMaxResults())
-                    .offset(request.getOffset())
-                    .includeHighlights(request.isIncludeHighlights())
-                    .fuzzyMatching(request.isFuzzyMatching())
-                    .wildcardMatching(request.isWildcardMatching())
-                    .phraseMatching(request.isPhraseMatching())
-                    .includeFacets(request.isIncludeFacets())
-                    .includeSuggestions(request.isIncludeSuggestions())
-                    .trackMetrics(true)
-                    .sessionId(request.getSessionId())
-                    .userId(request.getUserId())
-                    .build();
-
-            SearchResponse<Product> response = searchEngine.search(
-                    request.getQuery(),
-                    request.getFilters(),
-                    options);
-
-            // Record metrics
-            long duration = System.currentTimeMillis() - startTime;
-            metricsCollector.recordSearch(
-                    "product",
-                    request.getQuery(),
-                    duration,
-                    response.getResults().size(),
-                    0.0,
-                    response.isSuccess(),
-                    response.getTotalHits() == 0);
-
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
-            log.error("Advanced search failed for query: {}", request.getQuery(), e);
-
-            long duration = System.currentTimeMillis() - startTime;
-            metricsCollector.recordSearch(
-                    "product",
-                    request.getQuery(),
-                    duration,
-                    0,
-                    0.0,
-                    false,
-                    true);
-
-            return ResponseEntity.internalServerError().build();
-        }
+        SearchOptions options = SearchOptions.builder()
+                .maxResults(request.getMaxResults())
+                .offset(request.getOffset())
+                .cursor(request.getCursor())
+                .includeHighlights(request.isIncludeHighlights())
+                .fuzzyMatching(request.isFuzzyMatching())
+                .wildcardMatching(request.isWildcardMatching())
+                .phraseMatching(request.isPhraseMatching())
+                .includeFacets(request.isIncludeFacets())
+                .includeSuggestions(request.isIncludeSuggestions())
+                .trackMetrics(true)
+                .sessionId(request.getSessionId())
+                .userId(request.getUserId())
+                .build();
+
+        return searchEngine.searchAsync(request.getQuery(), request.getFilters(), options)
+                .thenApply(response -> {
+                    // Record metrics
+                    long duration = System.currentTimeMillis() - startTime;
+                    metricsCollector.recordSearch(
+                            "product",
+                            request.getQuery(),
+                            duration,
+                            response.getResults().size(),
+                            0.0,
+                            response.isSuccess(),
+                            response.getTotalHits() == 0);
+
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    log.error("Advanced search failed for query: {}", request.getQuery(), e);
+
+                    long duration = System.currentTimeMillis() - startTime;
+                    metricsCollector.recordSearch(
+                            "product",
+                            request.getQuery(),
+                            duration,
+                            0,
+                            0.0,
+                            false,
+                            true);
+
+                    return ResponseEntity.status(errorStatus(e)).build();
+                });
     }
 
     /**
@@ -156,42 +159,42 @@ public class SearchController {
      * Index a product
      */
     @PostMapping("/products")
-    public ResponseEntity<Void> indexProduct(@RequestBody Product product) {
+    public CompletableFuture<ResponseEntity<Void>> indexProduct(@RequestBody Product product) {
 
         long startTime = System.currentTimeMillis();
 
-        try {
-            searchEngine.index(product);
-
-            long duration = System.currentTimeMillis() - startTime;
-            metricsCollector.recordIndexing("product", 1, duration);
-
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            log.error("Failed to index product: {}", product.getId(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return searchEngine.indexAsync(product)
+                .thenApply(ignored -> {
+                    long duration = System.currentTimeMillis() - startTime;
+                    metricsCollector.recordIndexing("product", 1, duration);
+
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .exceptionally(e -> {
+                    log.error("Failed to index product: {}", product.getId(), e);
+                    return ResponseEntity.status(errorStatus(e)).build();
+                });
     }
 
     /**
      * Batch index products
      */
     @PostMapping("/products/batch")
-    public ResponseEntity<Void> batchIndexProducts(@RequestBody List<Product> products) {
+    public CompletableFuture<ResponseEntity<Void>> batchIndexProducts(@RequestBody List<Product> products) {
 
         long startTime = System.currentTimeMillis();
 
-        try {
-            searchEngine.indexBatch(products);
-
-            long duration = System.currentTimeMillis() - startTime;
-            metricsCollector.recordIndexing("product", products.size(), duration);
-
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            log.error("Failed to batch index {} products", products.size(), e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return searchEngine.indexBatchAsync(products)
+                .thenApply(ignored -> {
+                    long duration = System.currentTimeMillis() - startTime;
+                    metricsCollector.recordIndexing("product", products.size(), duration);
+
+                    return ResponseEntity.ok().<Void>build();
+                })
+                .exceptionally(e -> {
+                    log.error("Failed to batch index {} products", products.size(), e);
+                    return ResponseEntity.status(errorStatus(e)).build();
+                });
     }
 
     /**
@@ -354,6 +357,22 @@ public class SearchController {
         }
     }
 
+    /**
+     * 503 when the engine is at capacity, 504 on timeout, 500 otherwise
+     */
+    private static HttpStatus errorStatus(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof RejectedExecutionException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+        if (cause instanceof TimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
     /**
      * Request model for advanced search
      */
@@ -362,6 +381,7 @@ public class SearchController {
         private Map<String, Object> filters;
         private int maxResults = 20;
         private int offset = 0;
+        private String cursor;
         private boolean includeHighlights = true;
         private boolean fuzzyMatching = false;
         private boolean wildcardMatching = false;
@@ -404,6 +424,14 @@ public class SearchController {
             this.offset = offset;
         }
 
+        public String getCursor() {
+            return cursor;
+        }
+
+        public void setCursor(String cursor) {
+            this.cursor = cursor;
+        }
+
         public boolean isIncludeHighlights() {
             return includeHighlights;
         }
@@ -9,8 +9,10 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Example Product entity for demonstrating the search framework.
@@ -105,15 +107,18 @@ public class Product implements SearchableEntity {
                 "sku", sku);
     }
 
+    @Override
     public Map<String, Object> getFilterableFields() {
-        return Map.of(
-                "category", category,
-                "brand", brand,
-                "seller_id", sellerId,
-                "is_active", isActive,
-                "price", price,
-                "rating", rating,
-                "stock_quantity", stockQuantity);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("category", category);
+        fields.put("brand", brand);
+        fields.put("seller_id", sellerId);
+        fields.put("is_active", isActive);
+        fields.put("price", price);
+        fields.put("rating", rating);
+        fields.put("stock_quantity", stockQuantity);
+        fields.values().removeIf(Objects::isNull);
+        return fields;
     }
 
     public Map<String, Object> getSortableFields() {
@@ -9,8 +9,10 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Example Seller entity for demonstrating the search framework.
@@ -128,15 +130,18 @@ public class Seller implements SearchableEntity {
                 "specialties", specialties != null ? String.join(" ", specialties) : "");
     }
 
+    @Override
     public Map<String, Object> getFilterableFields() {
-        return Map.of(
-                "city", city,
-                "state", state,
-                "country", country,
-                "is_verified", isVerified,
-                "is_premium", isPremium,
-                "rating", rating,
-                "products_count", productsCount);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("city", city);
+        fields.put("state", state);
+        fields.put("country", country);
+        fields.put("is_verified", isVerified);
+        fields.put("is_premium", isPremium);
+        fields.put("rating", rating);
+        fields.put("products_count", productsCount);
+        fields.values().removeIf(Objects::isNull);
+        return fields;
     }
 
     public Map<String, Object> getSortableFields() {
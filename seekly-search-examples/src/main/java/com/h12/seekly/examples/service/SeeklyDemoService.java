@@ -1,5 +1,6 @@
 package com.h12.seekly.examples.service;
 
+import com.h12.seekly.core.WriteOptions;
 import com.h12.seekly.core.SearchEngine;
 import com.h12.seekly.core.SearchOptions;
 import com.h12.seekly.core.SearchResponse;
@@ -28,18 +29,20 @@ public class SeeklyDemoService {
         try {
             // Create Lucene search engine for products
 //            SearchEngine<Product> productEngine = SearchEngineFactory.createLuceneSearchEngine(
-//                    "./index/lucene_products", "product");
+//                    PostgresSearchConfig.builder().luceneIndexPath("./index/lucene_products")
+//                            .entityType("product").build(), Product.class);
             List<Product> products = createSampleProducts();
             log.info("Indexing {} products...", products.size());
-            productEngine.indexBatch(products);
+            productEngine.indexBatch(products, WriteOptions.builder().waitForVisibility(true).build());
             performProductSearches(productEngine);
 
             // Create Lucene search engine for sellers
 //            SearchEngine<Seller> sellerEngine = SearchEngineFactory.createLuceneSearchEngine(
-//                    "./index/lucene_sellers", "seller");
+//                    PostgresSearchConfig.builder().luceneIndexPath("./index/lucene_sellers")
+//                            .entityType("seller").build(), Seller.class);
             List<Seller> sellers = createSampleSellers();
             log.info("Indexing {} sellers...", sellers.size());
-            sellerEngine.indexBatch(sellers);
+            sellerEngine.indexBatch(sellers, WriteOptions.builder().waitForVisibility(true).build());
             performSellerSearches(sellerEngine);
             log.info("Lucene demo completed successfully!");
         } catch (Exception e) {